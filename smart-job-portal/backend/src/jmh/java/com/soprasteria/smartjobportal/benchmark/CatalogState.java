@@ -0,0 +1,30 @@
+package com.soprasteria.smartjobportal.benchmark;
+
+import com.soprasteria.smartjobportal.model.Application;
+import com.soprasteria.smartjobportal.model.Job;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Synthetic catalog shared by the benchmarks that work over every job.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int jobs;
+
+    List<Job> catalog;
+    List<Application> applications;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = SyntheticCatalog.jobs(jobs);
+        applications = SyntheticCatalog.applications(catalog);
+    }
+}
@@ -0,0 +1,71 @@
+package com.soprasteria.smartjobportal.benchmark;
+
+import com.soprasteria.smartjobportal.model.User.Role;
+import com.soprasteria.smartjobportal.security.AuthenticatedUser;
+import com.soprasteria.smartjobportal.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks done by the authentication filter on every request, with the
+ * verified-token cache warm and with it disabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private static final long EXPIRATION = 86_400_000L;
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachingProvider = new JwtTokenProvider(SECRET_KEY, EXPIRATION, 10_000, 300_000, new SimpleMeterRegistry());
+        uncachedProvider = new JwtTokenProvider(SECRET_KEY, EXPIRATION, 0, 0, new SimpleMeterRegistry());
+
+        userDetails = new AuthenticatedUser(2, "seeker", Role.JOBSEEKER);
+        token = cachingProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return uncachedProvider.extractUsername(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser extractPrincipalUncached() {
+        return uncachedProvider.extractPrincipal(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser extractPrincipalCached() {
+        return cachingProvider.extractPrincipal(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return cachingProvider.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,95 @@
+package com.soprasteria.smartjobportal.benchmark;
+
+import com.soprasteria.smartjobportal.converter.EmploymentTypeConverter;
+import com.soprasteria.smartjobportal.converter.ExperienceLevelConverter;
+import com.soprasteria.smartjobportal.dto.ApplicationDTO.ApplicationResponse;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobResponse;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobSummary;
+import com.soprasteria.smartjobportal.model.Application;
+import com.soprasteria.smartjobportal.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and the enum attribute converters, applied to every
+ * job or application of the catalog per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final EmploymentTypeConverter employmentTypeConverter = new EmploymentTypeConverter();
+    private final ExperienceLevelConverter experienceLevelConverter = new ExperienceLevelConverter();
+
+    // Column values as read from the database, including legacy enum-name spellings
+    private String[] employmentTypeColumns;
+    private String[] experienceLevelColumns;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState state) {
+        employmentTypeColumns = new String[state.catalog.size()];
+        experienceLevelColumns = new String[state.catalog.size()];
+        for (int i = 0; i < state.catalog.size(); i++) {
+            Job job = state.catalog.get(i);
+            employmentTypeColumns[i] = i % 10 == 0
+                    ? job.getEmploymentType().name()
+                    : employmentTypeConverter.convertToDatabaseColumn(job.getEmploymentType());
+            experienceLevelColumns[i] = i % 10 == 0
+                    ? job.getExperienceLevel().name()
+                    : experienceLevelConverter.convertToDatabaseColumn(job.getExperienceLevel());
+        }
+    }
+
+    @Benchmark
+    public void jobResponseFromEntity(CatalogState state, Blackhole blackhole) {
+        for (Job job : state.catalog) {
+            blackhole.consume(JobResponse.fromEntity(job));
+        }
+    }
+
+    @Benchmark
+    public void jobSummaryFromEntity(CatalogState state, Blackhole blackhole) {
+        for (Job job : state.catalog) {
+            blackhole.consume(JobSummary.fromEntity(job));
+        }
+    }
+
+    @Benchmark
+    public void applicationResponseFromEntity(CatalogState state, Blackhole blackhole) {
+        for (Application application : state.applications) {
+            blackhole.consume(ApplicationResponse.fromEntity(application));
+        }
+    }
+
+    @Benchmark
+    public void convertToDatabaseColumn(CatalogState state, Blackhole blackhole) {
+        for (Job job : state.catalog) {
+            blackhole.consume(employmentTypeConverter.convertToDatabaseColumn(job.getEmploymentType()));
+            blackhole.consume(experienceLevelConverter.convertToDatabaseColumn(job.getExperienceLevel()));
+        }
+    }
+
+    @Benchmark
+    public void convertToEntityAttribute(Blackhole blackhole) {
+        for (int i = 0; i < employmentTypeColumns.length; i++) {
+            blackhole.consume(employmentTypeConverter.convertToEntityAttribute(employmentTypeColumns[i]));
+            blackhole.consume(experienceLevelConverter.convertToEntityAttribute(experienceLevelColumns[i]));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.soprasteria.smartjobportal.benchmark;
+
+import com.soprasteria.smartjobportal.matching.RecommendationEngine;
+import com.soprasteria.smartjobportal.matching.RecommendationEngine.Candidate;
+import com.soprasteria.smartjobportal.matching.RecommendationEngine.ScoredJob;
+import com.soprasteria.smartjobportal.matching.SkillMatcher;
+import com.soprasteria.smartjobportal.matching.SkillMatcher.SkillProfile;
+import com.soprasteria.smartjobportal.matching.SkillNormalizer;
+import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.service.SkillService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores one job seeker against the whole catalog: through the public
+ * string-based entry point, on pre-parsed profiles, and as a top-K ranking.
+ * Every operation covers all jobs, so results scale with the catalog size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MatchingBenchmark {
+
+    private static final String USER_SKILLS = "Java, Spring Boot, SQL, Docker, k8s, ReactJS";
+
+    private SkillNormalizer normalizer;
+    private SkillMatcher matcher;
+    private RecommendationEngine engine;
+    private SkillProfile userProfile;
+    private List<SkillProfile> jobProfiles;
+    private List<Candidate> candidates;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState state) {
+        normalizer = new SkillNormalizer(new DefaultResourceLoader(), "classpath:skill-synonyms.txt", 2);
+        matcher = new SkillMatcher(normalizer, 20_000);
+        engine = new RecommendationEngine(matcher, 0);
+        userProfile = matcher.profile(USER_SKILLS);
+
+        jobProfiles = new ArrayList<>(state.catalog.size());
+        candidates = new ArrayList<>(state.catalog.size());
+        for (Job job : state.catalog) {
+            jobProfiles.add(matcher.profile(job.getSkills()));
+            candidates.add(new Candidate(job.getId(), job.getSkills()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public void calculateMatchPercentage(CatalogState state, Blackhole blackhole) {
+        for (Job job : state.catalog) {
+            BigDecimal percentage = matcher.calculateMatchPercentage(USER_SKILLS, job.getSkills());
+            blackhole.consume(percentage);
+        }
+    }
+
+    @Benchmark
+    public double scorePreParsed() {
+        double total = 0;
+        for (SkillProfile jobProfile : jobProfiles) {
+            total += matcher.score(userProfile, jobProfile);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public List<ScoredJob> topTwenty() {
+        return engine.topK(userProfile, candidates, 20, 0);
+    }
+
+    @Benchmark
+    public void canonicalizeSkills(CatalogState state, Blackhole blackhole) {
+        for (Job job : state.catalog) {
+            for (String skill : SkillService.parseNames(job.getSkills())) {
+                blackhole.consume(normalizer.canonicalize(skill));
+            }
+        }
+    }
+}
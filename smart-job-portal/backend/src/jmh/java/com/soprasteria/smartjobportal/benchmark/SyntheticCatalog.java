@@ -0,0 +1,104 @@
+package com.soprasteria.smartjobportal.benchmark;
+
+import com.soprasteria.smartjobportal.model.Application;
+import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic in-memory jobs for benchmarks. Skill lists are drawn from a
+ * fixed vocabulary that includes synonyms and near-duplicates, so matching
+ * exercises normalization the way real input does; long text is shared
+ * between jobs to keep a million-job catalog within a few hundred MB.
+ */
+final class SyntheticCatalog {
+
+    static final String[] SKILLS = {
+            "java", "javascript", "typescript", "python", "kotlin", "scala", "go", "rust", "c#", "c++",
+            "spring boot", "spring", "hibernate", "sql", "mysql", "postgresql", "mongodb", "redis", "kafka",
+            "react", "reactjs", "angular", "angularjs", "vue", "node.js", "nodejs", "html", "css", "sass",
+            "docker", "kubernetes", "k8s", "aws", "azure", "gcp", "terraform", "ci/cd", "git", "linux",
+            "rest api", "graphql", "microservices", "machine learning", "ml", "tensorflow", "pandas",
+            "elasticsearch", "lucene", "jenkins", "agile", "scrum", "figma", "excel", "tableau"
+    };
+
+    private static final String[] TITLES = {
+            "Java Developer", "Senior Java Engineer", "Frontend Engineer", "Full Stack Developer",
+            "Data Scientist", "DevOps Engineer", "Backend Engineer", "Machine Learning Engineer",
+            "Cloud Architect", "QA Engineer", "Mobile Developer", "Site Reliability Engineer"
+    };
+
+    private static final String[] LOCATIONS = {"Paris", "Lyon", "Nantes", "Remote", "Toulouse", "Lille", "Bordeaux"};
+
+    private static final String DESCRIPTION = "We are looking for an engineer to design, build and run "
+            + "services used by thousands of customers. You will work in a cross-functional team, review "
+            + "code, mentor colleagues and take part in on-call. ".repeat(4);
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Job> jobs(int count) {
+        Random random = new Random(42);
+        User recruiter = new User();
+        recruiter.setId(1);
+        recruiter.setUsername("recruiter");
+        recruiter.setFullName("Recruiter One");
+        recruiter.setRole(User.Role.RECRUITER);
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Job job = new Job();
+            job.setId(i + 1);
+            job.setTitle(TITLES[random.nextInt(TITLES.length)]);
+            job.setDescription(DESCRIPTION);
+            job.setSkills(skills(random, 3 + random.nextInt(6)));
+            job.setCompany("Company " + (i % 1000));
+            job.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            job.setSalary(BigDecimal.valueOf(30_000 + random.nextInt(90) * 1_000L));
+            job.setEmploymentType(Job.EmploymentType.values()[random.nextInt(Job.EmploymentType.values().length)]);
+            job.setExperienceLevel(Job.ExperienceLevel.values()[random.nextInt(Job.ExperienceLevel.values().length)]);
+            job.setPostedBy(recruiter);
+            job.setPostedDate(start.plusMinutes(i));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    static List<Application> applications(List<Job> jobs) {
+        User seeker = new User();
+        seeker.setId(2);
+        seeker.setUsername("seeker");
+        seeker.setRole(User.Role.JOBSEEKER);
+
+        List<Application> applications = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            Application application = new Application();
+            application.setId(job.getId());
+            application.setJob(job);
+            application.setUser(seeker);
+            application.setCoverLetter("I would like to apply.");
+            application.setMatchPercentage(BigDecimal.valueOf(50));
+            application.setAppliedDate(job.getPostedDate().plusDays(1));
+            applications.add(application);
+        }
+        return applications;
+    }
+
+    static String skills(Random random, int count) {
+        Set<String> skills = new LinkedHashSet<>();
+        while (skills.size() < count) {
+            String skill = SKILLS[random.nextInt(SKILLS.length)];
+            // Vary the spelling the way free-text input does
+            skills.add(random.nextInt(4) == 0 ? skill.toUpperCase() : skill);
+        }
+        return String.join(", ", skills);
+    }
+}
@@ -0,0 +1,354 @@
+package com.soprasteria.smartjobportal.catalog;
+
+import com.soprasteria.smartjobportal.dto.JobDTO.JobCursor;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobPage;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobResponse;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobSummary;
+import com.soprasteria.smartjobportal.event.JobCreatedEvent;
+import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.repository.JobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+/**
+ * Read-optimized, in-memory copy of the job catalog. Readers work on an
+ * immutable snapshot of pre-built {@link JobResponse} and {@link JobSummary}
+ * views and never touch the database; writers build a new snapshot and swap
+ * it in atomically. New jobs are appended once their transaction commits, and
+ * a scheduled reload picks up changes made outside the application. Each
+ * snapshot also carries a {@link JobFacetIndex} for filtered listings.
+ *
+ * Every snapshot and every job carries a version that only moves when content
+ * actually changes, which is what HTTP validators are derived from.
+ */
+@Component
+@Slf4j
+public class JobCatalog {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    // The keyset queries' order reversed: oldest first, then lowest ID; like
+    // MySQL's DESC, jobs without a posted date come last in the pages
+    private static final Comparator<Entry> OLDEST_FIRST = Comparator
+            .comparing(Entry::postedDate, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(Entry::id);
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Object reloadLock = new Object();
+    private volatile Snapshot snapshot;
+
+    // Jobs added while a reload is reading the database, re-applied when it swaps
+    private List<Entry> addedDuringReload;
+
+    // Seeded from the clock so versions are not reused across restarts
+    private long lastVersion = System.currentTimeMillis();
+
+    public JobCatalog(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        Gauge.builder("jobs.catalog.size", this, catalog -> catalog.snapshot == null ? 0 : catalog.snapshot.byId.size())
+                .description("Jobs in the current catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("jobs.catalog.age", this, catalog -> catalog.snapshot == null
+                        ? 0 : (System.currentTimeMillis() - catalog.snapshot.builtAt) / 1000.0)
+                .description("Time since the current catalog snapshot was built")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    private record Entry(LocalDateTime postedDate, Integer id, Integer postedById,
+                         JobResponse view, JobSummary summary, String[] facetValues, long version) {
+
+        static Entry of(Job job, long version) {
+            JobResponse view = JobResponse.fromEntity(job);
+            String[] facetValues = new String[JobFacet.values().length];
+            for (JobFacet facet : JobFacet.values()) {
+                facetValues[facet.ordinal()] = facet.valueOf(job);
+            }
+            return new Entry(job.getPostedDate(), job.getId(), view.getPostedById(),
+                    view, JobSummary.fromEntity(job), facetValues, version);
+        }
+    }
+
+    private static final class Snapshot {
+        // Oldest first, so a newer job takes the next position and no other moves
+        private final List<Entry> oldestFirst;
+        private final Map<Integer, Entry> byId;
+        private final Map<Integer, List<Entry>> byPostedBy;
+        private final Map<Integer, Integer> positionById;
+        private final JobFacetIndex facets;
+        private final long version;
+        private final long builtAt = System.currentTimeMillis();
+
+        private Snapshot(Collection<Entry> entries, long version) {
+            this.version = version;
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(OLDEST_FIRST);
+            this.oldestFirst = Collections.unmodifiableList(sorted);
+            this.byId = sorted.stream().collect(Collectors.toUnmodifiableMap(Entry::id, entry -> entry));
+            // Grouping preserves the encounter order, so every list is already sorted
+            this.byPostedBy = sorted.stream()
+                    .filter(entry -> entry.postedById() != null)
+                    .collect(Collectors.groupingBy(Entry::postedById, Collectors.toUnmodifiableList()));
+
+            Map<Integer, Integer> positions = new HashMap<>(sorted.size() * 2);
+            for (int i = 0; i < sorted.size(); i++) {
+                positions.put(sorted.get(i).id(), i);
+            }
+            this.positionById = Collections.unmodifiableMap(positions);
+            this.facets = new JobFacetIndex(sorted.stream().map(Entry::facetValues).toList());
+        }
+
+        private Snapshot(List<Entry> oldestFirst, Map<Integer, Entry> byId, Map<Integer, List<Entry>> byPostedBy,
+                         Map<Integer, Integer> positionById, JobFacetIndex facets, long version) {
+            this.oldestFirst = Collections.unmodifiableList(oldestFirst);
+            this.byId = Collections.unmodifiableMap(byId);
+            this.byPostedBy = Collections.unmodifiableMap(byPostedBy);
+            this.positionById = Collections.unmodifiableMap(positionById);
+            this.facets = facets;
+            this.version = version;
+        }
+
+        boolean isNewerThanAll(Entry entry) {
+            return !byId.containsKey(entry.id())
+                    && (oldestFirst.isEmpty() || OLDEST_FIRST.compare(oldestFirst.get(oldestFirst.size() - 1), entry) < 0);
+        }
+
+        /**
+         * This snapshot plus a job newer than all of its jobs, without sorting
+         * again or rebuilding the facet index.
+         */
+        Snapshot append(Entry entry) {
+            int position = oldestFirst.size();
+            List<Entry> entries = new ArrayList<>(position + 1);
+            entries.addAll(oldestFirst);
+            entries.add(entry);
+
+            Map<Integer, Entry> ids = new HashMap<>(byId);
+            ids.put(entry.id(), entry);
+            Map<Integer, Integer> positions = new HashMap<>(positionById);
+            positions.put(entry.id(), position);
+
+            Map<Integer, List<Entry>> posters = byPostedBy;
+            if (entry.postedById() != null) {
+                posters = new HashMap<>(byPostedBy);
+                List<Entry> posted = new ArrayList<>(byPostedBy.getOrDefault(entry.postedById(), List.of()));
+                posted.add(entry);
+                posters.put(entry.postedById(), Collections.unmodifiableList(posted));
+            }
+
+            return new Snapshot(entries, ids, posters, positions, facets.with(entry.facetValues(), position),
+                    entry.version());
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        // Startup and scheduled reloads must not interleave
+        synchronized (reloadLock) {
+            synchronized (this) {
+                addedDuringReload = new ArrayList<>();
+            }
+
+            long start = System.currentTimeMillis();
+            Map<Integer, Job> jobs = new HashMap<>();
+            int pageNumber = 0;
+            Page<Job> page;
+            do {
+                page = jobRepository.findAllWithPoster(PageRequest.of(pageNumber++, LOAD_BATCH_SIZE, Sort.by("id")));
+                page.forEach(job -> jobs.put(job.getId(), job));
+            } while (page.hasNext());
+
+            synchronized (this) {
+                Snapshot current = snapshot;
+                long version = lastVersion + 1;
+                boolean changed = current == null || current.byId.size() != jobs.size();
+
+                Map<Integer, Entry> entries = new HashMap<>();
+                for (Job job : jobs.values()) {
+                    Entry loaded = Entry.of(job, version);
+                    Entry existing = current == null ? null : current.byId.get(job.getId());
+                    if (existing != null && existing.view().equals(loaded.view())) {
+                        // Unchanged jobs keep their version, and so their ETag
+                        entries.put(existing.id(), existing);
+                    } else {
+                        entries.put(loaded.id(), loaded);
+                        changed = true;
+                    }
+                }
+                for (Entry added : addedDuringReload) {
+                    changed |= entries.put(added.id(), added) == null;
+                }
+                addedDuringReload = null;
+
+                if (changed) {
+                    lastVersion = version;
+                    snapshot = new Snapshot(entries.values(), version);
+                }
+            }
+            log.debug("Job catalog reloaded: {} jobs in {} ms", jobs.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onJobCreated(JobCreatedEvent event) {
+        // Read back in a fresh persistence context so the view holds the values as stored
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        read.setReadOnly(true);
+        read.executeWithoutResult(status -> jobRepository.findWithPosterById(event.jobId()).ifPresent(this::add));
+    }
+
+    public synchronized void add(Job job) {
+        Entry entry = Entry.of(job, ++lastVersion);
+        if (addedDuringReload != null) {
+            addedDuringReload.add(entry);
+        }
+        if (snapshot != null && snapshot.isNewerThanAll(entry)) {
+            snapshot = snapshot.append(entry);
+        } else if (snapshot != null) {
+            // Committed out of posting order: rare enough to build it over
+            Map<Integer, Entry> entries = new HashMap<>(snapshot.byId);
+            entries.put(entry.id(), entry);
+            snapshot = new Snapshot(entries.values(), entry.version());
+        }
+    }
+
+    /**
+     * Version of the whole catalog; changes whenever any job is added or changed.
+     */
+    public long version() {
+        return snapshot.version;
+    }
+
+    /**
+     * Version of a single job, or empty when the job is not in the catalog.
+     */
+    public OptionalLong version(Integer id) {
+        Entry entry = snapshot.byId.get(id);
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(entry.version());
+    }
+
+    /**
+     * Returns a copy of the job's view that the caller is free to modify.
+     */
+    public Optional<JobResponse> get(Integer id) {
+        Entry entry = snapshot.byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.view().toBuilder().build());
+    }
+
+    /**
+     * Returns the page following {@code after} in newest-first order among the
+     * jobs matching every facet selection in the filter, or among all jobs when
+     * the filter is null. Views are copies.
+     */
+    public JobPage<JobSummary> page(JobFilter filter, JobCursor after, int pageSize) {
+        Snapshot current = snapshot;
+        BitSet allowed = filter == null ? null : current.facets.matching(filter, null);
+        return page(current.oldestFirst, allowed, after, pageSize);
+    }
+
+    /**
+     * Returns the page following {@code after} in newest-first order among the
+     * jobs posted by one user. Views are copies.
+     */
+    public JobPage<JobSummary> pageByPoster(Integer postedById, JobCursor after, int pageSize) {
+        List<Entry> entries = snapshot.byPostedBy.getOrDefault(postedById, List.of());
+        return page(entries, null, after, pageSize);
+    }
+
+    /**
+     * Facet value counts among the given jobs (all jobs when null), under the
+     * selections in the filter.
+     */
+    public Map<String, Map<String, Integer>> facetCounts(Collection<Integer> jobIds, JobFilter filter) {
+        Snapshot current = snapshot;
+        BitSet scope = null;
+        if (jobIds != null) {
+            scope = new BitSet(current.oldestFirst.size());
+            for (Integer jobId : jobIds) {
+                Integer position = current.positionById.get(jobId);
+                if (position != null) {
+                    scope.set(position);
+                }
+            }
+        }
+        return current.facets.counts(scope, filter);
+    }
+
+    // Pages run newest first, so they walk the oldest-first entries backwards
+    private static JobPage<JobSummary> page(List<Entry> entries, BitSet allowed, JobCursor after, int pageSize) {
+        int from = entries.size() - 1;
+        if (after != null) {
+            Entry position = new Entry(after.getPostedDate(), after.getId(), null, null, null, null, 0);
+            int index = Collections.binarySearch(entries, position, OLDEST_FIRST);
+            from = (index >= 0 ? index : -index - 1) - 1;
+        }
+
+        List<JobSummary> content = new ArrayList<>(pageSize);
+        Entry last = null;
+        boolean hasMore = false;
+        for (int i = previous(allowed, from); i >= 0; i = previous(allowed, i - 1)) {
+            if (content.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            last = entries.get(i);
+            content.add(last.summary().toBuilder().build());
+        }
+
+        return JobPage.<JobSummary>builder()
+                .content(content)
+                .nextCursor(hasMore ? new JobCursor(last.postedDate(), last.id()).encode() : null)
+                .hasMore(hasMore)
+                .size(content.size())
+                .build();
+    }
+
+    // Last position at or before from that is allowed, or -1 when there is none
+    private static int previous(BitSet allowed, int from) {
+        if (from < 0) {
+            return -1;
+        }
+        return allowed == null ? from : allowed.previousSetBit(from);
+    }
+}
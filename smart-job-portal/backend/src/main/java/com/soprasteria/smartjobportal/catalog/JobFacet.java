@@ -0,0 +1,70 @@
+package com.soprasteria.smartjobportal.catalog;
+
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+import com.soprasteria.smartjobportal.model.Job;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Job attributes that search results can be filtered and counted by. Each
+ * facet maps a job to at most one value; values are matched case-insensitively.
+ */
+public enum JobFacet {
+    EMPLOYMENT_TYPE("employmentType"),
+    EXPERIENCE_LEVEL("experienceLevel"),
+    LOCATION("location"),
+    SALARY_BAND("salaryBand");
+
+    // Upper bounds of the salary bands, exclusive; the last band is open-ended
+    private static final long[] SALARY_BOUNDS = {30_000, 50_000, 80_000, 120_000};
+    private static final String[] SALARY_BANDS = {"0-30k", "30k-50k", "50k-80k", "80k-120k", "120k+"};
+
+    private final String fieldName;
+
+    JobFacet(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * Name used for the request parameter, the response key and the search
+     * index field.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String valueOf(Job job) {
+        return switch (this) {
+            case EMPLOYMENT_TYPE -> job.getEmploymentType() != null ? job.getEmploymentType().getDisplayName() : null;
+            case EXPERIENCE_LEVEL -> job.getExperienceLevel() != null ? job.getExperienceLevel().getDisplayName() : null;
+            case LOCATION -> job.getLocation() != null && !job.getLocation().isBlank() ? job.getLocation().trim() : null;
+            case SALARY_BAND -> salaryBand(job.getSalary());
+        };
+    }
+
+    public List<String> selectedIn(JobFilter filter) {
+        if (filter == null) {
+            return List.of();
+        }
+        List<String> selected = switch (this) {
+            case EMPLOYMENT_TYPE -> filter.getEmploymentType();
+            case EXPERIENCE_LEVEL -> filter.getExperienceLevel();
+            case LOCATION -> filter.getLocation();
+            case SALARY_BAND -> filter.getSalaryBand();
+        };
+        return selected != null ? selected : List.of();
+    }
+
+    static String salaryBand(BigDecimal salary) {
+        if (salary == null) {
+            return null;
+        }
+        for (int i = 0; i < SALARY_BOUNDS.length; i++) {
+            if (salary.compareTo(BigDecimal.valueOf(SALARY_BOUNDS[i])) < 0) {
+                return SALARY_BANDS[i];
+            }
+        }
+        return SALARY_BANDS[SALARY_BANDS.length - 1];
+    }
+}
@@ -0,0 +1,206 @@
+package com.soprasteria.smartjobportal.catalog;
+
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable facet index over the positions of a catalog snapshot. For every
+ * facet value it keeps the set of positions holding that value, so filtering
+ * is a union within a facet and an intersection across facets, and counting
+ * is an intersection with the current scope.
+ */
+final class JobFacetIndex {
+
+    private final Map<JobFacet, Map<String, Postings>> postings;
+
+    /**
+     * @param values facet values per position, indexed by {@link JobFacet#ordinal()}
+     */
+    JobFacetIndex(List<String[]> values) {
+        postings = new EnumMap<>(JobFacet.class);
+        int size = values.size();
+        for (JobFacet facet : JobFacet.values()) {
+            Map<String, IntStream.Builder> builders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int position = 0; position < size; position++) {
+                String value = values.get(position)[facet.ordinal()];
+                if (value != null) {
+                    builders.computeIfAbsent(value, v -> IntStream.builder()).add(position);
+                }
+            }
+
+            Map<String, Postings> byValue = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            builders.forEach((value, builder) -> byValue.put(value, Postings.of(builder.build().toArray(), size)));
+            postings.put(facet, byValue);
+        }
+    }
+
+    private JobFacetIndex(Map<JobFacet, Map<String, Postings>> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * This index plus one more position, after all existing ones, holding the
+     * given values. Only the postings of those values are copied.
+     */
+    JobFacetIndex with(String[] values, int position) {
+        Map<JobFacet, Map<String, Postings>> extended = new EnumMap<>(postings);
+        for (JobFacet facet : JobFacet.values()) {
+            String value = values[facet.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            Map<String, Postings> byValue = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            byValue.putAll(postings.get(facet));
+            Postings existing = byValue.get(value);
+            byValue.put(value, existing == null
+                    ? Postings.of(new int[]{position}, position + 1)
+                    : existing.plus(position));
+            extended.put(facet, byValue);
+        }
+        return new JobFacetIndex(extended);
+    }
+
+    /**
+     * Positions matching every selection in the filter, ignoring the selection
+     * on {@code except} if given. Returns null when nothing is selected.
+     */
+    BitSet matching(JobFilter filter, JobFacet except) {
+        BitSet result = null;
+        for (JobFacet facet : JobFacet.values()) {
+            List<String> selected = facet.selectedIn(filter);
+            if (facet == except || selected.isEmpty()) {
+                continue;
+            }
+
+            BitSet union = new BitSet();
+            for (String value : selected) {
+                Postings values = postings.get(facet).get(value.trim());
+                if (values != null) {
+                    values.addTo(union);
+                }
+            }
+            if (result == null) {
+                result = union;
+            } else {
+                result.and(union);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts per facet value within {@code scope} (null for the whole snapshot).
+     * Each facet is counted under the other facets' selections but not its own,
+     * so every value shows how many results selecting it would add. Values
+     * without results are left out; the rest are ordered by count.
+     */
+    Map<String, Map<String, Integer>> counts(BitSet scope, JobFilter filter) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (JobFacet facet : JobFacet.values()) {
+            BitSet facetScope = intersect(scope, matching(filter, facet));
+
+            Map<String, Integer> values = new TreeMap<>();
+            postings.get(facet).forEach((value, positions) -> {
+                int count = positions.count(facetScope);
+                if (count > 0) {
+                    values.put(value, count);
+                }
+            });
+
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            values.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+            counts.put(facet.getFieldName(), ordered);
+        }
+        return counts;
+    }
+
+    private static BitSet intersect(BitSet a, BitSet b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    /**
+     * Positions of one facet value. Frequent values are kept as a bitset and
+     * rare ones, such as most locations, as a sorted array, whichever is smaller.
+     */
+    private static final class Postings {
+        private final BitSet bits;
+        private final int[] positions;
+
+        private Postings(BitSet bits, int[] positions) {
+            this.bits = bits;
+            this.positions = positions;
+        }
+
+        static Postings of(int[] positions, int size) {
+            if ((long) positions.length * Integer.SIZE < size) {
+                return new Postings(null, positions);
+            }
+            BitSet bits = new BitSet(size);
+            for (int position : positions) {
+                bits.set(position);
+            }
+            return new Postings(bits, null);
+        }
+
+        Postings plus(int position) {
+            if (bits != null) {
+                BitSet extended = (BitSet) bits.clone();
+                extended.set(position);
+                return new Postings(extended, null);
+            }
+            int[] extended = Arrays.copyOf(positions, positions.length + 1);
+            extended[positions.length] = position;
+            return of(extended, position + 1);
+        }
+
+        int count(BitSet scope) {
+            if (bits != null) {
+                if (scope == null) {
+                    return bits.cardinality();
+                }
+                BitSet intersection = (BitSet) bits.clone();
+                intersection.and(scope);
+                return intersection.cardinality();
+            }
+            if (scope == null) {
+                return positions.length;
+            }
+            int count = 0;
+            for (int position : positions) {
+                if (scope.get(position)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        void addTo(BitSet target) {
+            if (bits != null) {
+                target.or(bits);
+            } else {
+                for (int position : positions) {
+                    target.set(position);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Chatbot answers keyed by the normalized question and the version of the
+ * prompt template that produced them, so "Resume tips?" and "resume  tips"
+ * share an entry and a template change never serves answers to the old
+ * prompt. Entries expire after the TTL; beyond the size limit the least
+ * recently used entry is evicted.
+ */
+@Component
+public class ChatResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Sentence punctuation only: "c++" and "c#" must not both become "c"
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[?!.,;:\\s]+$");
+
+    private record Entry(String response, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ChatResponseCache(@Value("${chatbot.cache.max-size:1000}") int maxSize,
+                             @Value("${chatbot.cache.ttl-ms:3600000}") long ttlMillis,
+                             MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ChatResponseCache.this.maxSize;
+            }
+        };
+        // Hit rate is hits / (hits + misses)
+        this.hits = Counter.builder("chatbot.cache.requests")
+                .description("Chatbot questions looked up in the response cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("chatbot.cache.requests")
+                .description("Chatbot questions looked up in the response cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chatbot.cache.size", this, ChatResponseCache::size)
+                .description("Chatbot answers currently cached")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    /**
+     * Cache key for a question asked with the given prompt template version.
+     */
+    public static String key(int promptVersion, String message) {
+        String normalized = Normalizer.normalize(message == null ? "" : message, Normalizer.Form.NFKC);
+        normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        normalized = TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+        return promptVersion + ":" + normalized;
+    }
+
+    public synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            entry = null;
+        }
+        (entry != null ? hits : misses).increment();
+        return entry != null ? entry.response() : null;
+    }
+
+    public synchronized void put(String key, String response) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
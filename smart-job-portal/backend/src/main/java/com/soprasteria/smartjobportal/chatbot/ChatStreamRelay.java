@@ -0,0 +1,188 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import com.soprasteria.smartjobportal.dto.ChatbotDTO.ChatResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Relays a {@link GeminiStream} to a client as server-sent events: a
+ * {@code chunk} event per partial answer, then {@code done}, or
+ * {@code error} with the message to show.
+ *
+ * Events are written by the send executor, one at a time per client, so the
+ * HTTP client's I/O threads never block on a slow connection. When more than
+ * {@link #MAX_PENDING} events wait to be written the upstream stream is
+ * paused until the client has caught up by half. If the client disconnects
+ * or the emitter times out, the upstream call is cancelled.
+ */
+@Slf4j
+public class ChatStreamRelay implements GeminiStream.Listener {
+
+    static final int MAX_PENDING = 16;
+
+    private final SseEmitter emitter;
+    private final Executor sendExecutor;
+    private final Function<Map<String, Object>, String> extractor;
+    private final Function<Throwable, ChatResponse> errorMapper;
+    private final Consumer<String> onAnswer;
+    private final StringBuilder answer = new StringBuilder();
+    private final Queue<SseEmitter.SseEventBuilder> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Object sendLock = new Object();
+    private volatile boolean ended;
+    private volatile GeminiStream stream;
+
+    /**
+     * @param extractor text of a partial Gemini response, or null if it has none
+     * @param errorMapper message shown to the user when the call fails
+     * @param onAnswer receives the complete answer once the stream has ended normally
+     */
+    public ChatStreamRelay(SseEmitter emitter,
+                           Executor sendExecutor,
+                           Function<Map<String, Object>, String> extractor,
+                           Function<Throwable, ChatResponse> errorMapper,
+                           Consumer<String> onAnswer) {
+        this.emitter = emitter;
+        this.sendExecutor = sendExecutor;
+        this.extractor = extractor;
+        this.errorMapper = errorMapper;
+        this.onAnswer = onAnswer;
+        // Container callbacks wait for a send in progress, so the response is
+        // not completed and recycled while that send is still writing to it
+        emitter.onCompletion(this::closeAfterSend);
+        emitter.onTimeout(this::closeAfterSend);
+        emitter.onError(error -> closeAfterSend());
+    }
+
+    /**
+     * Binds the upstream call, which is cancelled right away if the client
+     * has already gone.
+     */
+    public void attach(GeminiStream stream) {
+        this.stream = stream;
+        if (closed.get()) {
+            stream.cancel();
+        }
+    }
+
+    /**
+     * Sends a whole answer that did not come from a stream, e.g. from the
+     * cache, as a single chunk.
+     */
+    public void reply(String text) {
+        ChatResponse response = ChatResponse.builder().response(text).build();
+        enqueue(SseEmitter.event().name("chunk").data(response));
+        end(SseEmitter.event().name("done").data(response));
+    }
+
+    @Override
+    public boolean onChunk(Map<String, Object> chunk) {
+        String text = extractor.apply(chunk);
+        if (text == null || text.isEmpty()) {
+            return true;
+        }
+        answer.append(text);
+        enqueue(SseEmitter.event()
+                .name("chunk")
+                .data(ChatResponse.builder().response(text).build()));
+        return pending.get() < MAX_PENDING;
+    }
+
+    @Override
+    public void onComplete() {
+        if (!answer.isEmpty()) {
+            onAnswer.accept(answer.toString());
+        }
+        end(SseEmitter.event()
+                .name("done")
+                .data(ChatResponse.builder().response(answer.toString()).build()));
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        end(SseEmitter.event()
+                .name("error")
+                .data(errorMapper.apply(error)));
+    }
+
+    private void end(SseEmitter.SseEventBuilder last) {
+        enqueue(last);
+        ended = true;
+        drain();
+    }
+
+    private void enqueue(SseEmitter.SseEventBuilder event) {
+        events.add(event);
+        pending.incrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        if (closed.get() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        sendExecutor.execute(() -> {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = events.poll()) != null) {
+                    synchronized (sendLock) {
+                        if (closed.get()) {
+                            break;
+                        }
+                        emitter.send(event);
+                    }
+                    if (pending.decrementAndGet() <= MAX_PENDING / 2) {
+                        resumeUpstream();
+                    }
+                }
+                if (ended && events.isEmpty() && closed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter timed out
+                log.debug("Chat stream closed by the client: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Events added while this run was finishing
+            if (!events.isEmpty() || (ended && !closed.get())) {
+                drain();
+            }
+        });
+    }
+
+    private void resumeUpstream() {
+        GeminiStream current = stream;
+        if (current != null) {
+            current.resume();
+        }
+    }
+
+    private void closeAfterSend() {
+        synchronized (sendLock) {
+            close();
+        }
+    }
+
+    private void close() {
+        closed.set(true);
+        events.clear();
+        GeminiStream current = stream;
+        if (current != null && !current.isFinished()) {
+            current.cancel();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+/**
+ * A Gemini call refused because the client's concurrency limit was reached.
+ */
+public class GeminiBusyException extends RuntimeException {
+
+    public GeminiBusyException() {
+        super("Too many chatbot requests in progress");
+    }
+}
@@ -0,0 +1,293 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soprasteria.smartjobportal.config.GeminiConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking client for the Gemini API, on the pooled async HTTP client
+ * from {@link GeminiConfig}. No thread waits for the model while it
+ * generates; the returned future completes once the response has arrived.
+ *
+ * At most {@code gemini.http.max-concurrent-requests} calls are in flight at
+ * once. Calls beyond that fail immediately with {@link GeminiBusyException},
+ * which keeps a burst of chat traffic from piling up behind a slow model.
+ * 429 and 503 answers are retried with jittered exponential backoff, or
+ * after the server's Retry-After, as long as the call stays within
+ * {@code gemini.http.total-timeout-ms}.
+ *
+ * Streamed calls share the concurrency limit but are not retried, since part
+ * of the answer may already have reached the user.
+ */
+@Component
+@Slf4j
+public class GeminiClient {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final GeminiConfig geminiConfig;
+    private final ObjectMapper objectMapper;
+    private final CloseableHttpAsyncClient httpClient;
+    private final Semaphore permits;
+    private final long totalTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter retries;
+
+    public GeminiClient(GeminiConfig geminiConfig,
+                        ObjectMapper objectMapper,
+                        CloseableHttpAsyncClient geminiHttpClient,
+                        @Value("${gemini.http.max-concurrent-requests:32}") int maxConcurrentRequests,
+                        @Value("${gemini.http.total-timeout-ms:60000}") long totalTimeoutMillis,
+                        @Value("${gemini.http.max-retries:2}") int maxRetries,
+                        @Value("${gemini.http.retry-backoff-ms:500}") long retryBackoffMillis,
+                        MeterRegistry meterRegistry) {
+        this.geminiConfig = geminiConfig;
+        this.objectMapper = objectMapper;
+        this.httpClient = geminiHttpClient;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.totalTimeoutMillis = totalTimeoutMillis;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("gemini.requests.rejected")
+                .description("Gemini calls refused because the concurrency limit was reached")
+                .register(meterRegistry);
+        this.retries = Counter.builder("gemini.requests.retries")
+                .description("Gemini attempts repeated after a 429 or 503")
+                .register(meterRegistry);
+        Gauge.builder("gemini.requests.active", permits, semaphore -> maxConcurrentRequests - semaphore.availablePermits())
+                .description("Gemini calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    public boolean isConfigured() {
+        return geminiConfig.getApiKey() != null && !geminiConfig.getApiKey().isEmpty();
+    }
+
+    /**
+     * Posts a generateContent request and completes with the parsed response
+     * body. Non-2xx responses complete exceptionally with
+     * {@link GeminiException}, and calls exceeding the total timeout with a
+     * {@link TimeoutException}.
+     */
+    public CompletableFuture<Map<String, Object>> generateContent(Map<String, Object> request) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new GeminiBusyException());
+        }
+
+        try {
+            log.debug("Calling API at URL: {}", geminiConfig.getApiUrl());
+            Call call = new Call(endpoint(), toJson(request));
+            call.result.whenComplete((response, error) -> {
+                permits.release();
+                call.cancelAttempt();
+            });
+            call.attempt();
+            return call.result;
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Posts a streamGenerateContent request and hands each partial response
+     * to the listener as it arrives. Failures, including a full concurrency
+     * limit, are reported through {@link GeminiStream.Listener#onError}.
+     * The returned stream is used to pause, resume or cancel the call.
+     */
+    public GeminiStream streamGenerateContent(Map<String, Object> request, GeminiStream.Listener listener) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            GeminiStream stream = new GeminiStream(listener, objectMapper, () -> {
+            });
+            stream.fail(new GeminiBusyException());
+            return stream;
+        }
+
+        long start = System.nanoTime();
+        GeminiStream stream = new GeminiStream(listener, objectMapper, () -> {
+            permits.release();
+            record("STREAM", start);
+        });
+        try {
+            log.debug("Streaming from API at URL: {}", geminiConfig.getStreamUrl());
+            SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(streamEndpoint())
+                    .setBody(toJson(request), ContentType.APPLICATION_JSON)
+                    .build();
+            stream.start(httpClient.execute(SimpleRequestProducer.create(httpRequest), stream, new FutureCallback<>() {
+                @Override
+                public void completed(Void result) {
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    // Connect and I/O failures, which may never reach the consumer
+                    stream.fail(e);
+                }
+
+                @Override
+                public void cancelled() {
+                }
+            }));
+        } catch (RuntimeException e) {
+            stream.fail(e);
+        }
+        return stream;
+    }
+
+    /**
+     * One logical call, spanning its retries.
+     */
+    private final class Call {
+        private final URI uri;
+        private final String body;
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        private final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMillis);
+        private volatile Future<SimpleHttpResponse> inFlight;
+        private int attempt;
+
+        private Call(URI uri, String body) {
+            this.uri = uri;
+            this.body = body;
+            result.orTimeout(totalTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void attempt() {
+            if (result.isDone()) {
+                return;
+            }
+            SimpleHttpRequest request = SimpleRequestBuilder.post(uri)
+                    .setBody(body, ContentType.APPLICATION_JSON)
+                    .build();
+            long start = System.nanoTime();
+            inFlight = httpClient.execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    record(String.valueOf(response.getCode()), start);
+                    handle(response);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    record("IO_ERROR", start);
+                    result.completeExceptionally(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    result.cancel(false);
+                }
+            });
+        }
+
+        private void handle(SimpleHttpResponse response) {
+            int status = response.getCode();
+            if ((status == 429 || status == 503) && attempt < maxRetries) {
+                long delay = backoff(attempt, response.getFirstHeader(HttpHeaders.RETRY_AFTER));
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) < deadline) {
+                    attempt++;
+                    retries.increment();
+                    log.debug("Gemini answered {}, retrying in {} ms", status, delay);
+                    CompletableFuture.runAsync(this::attempt,
+                            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+                    return;
+                }
+            }
+            if (status / 100 != 2) {
+                result.completeExceptionally(new GeminiException(status, response.getBodyText()));
+                return;
+            }
+            try {
+                result.complete(objectMapper.readValue(response.getBodyText(), JSON_OBJECT));
+            } catch (JsonProcessingException e) {
+                result.completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+
+        private void cancelAttempt() {
+            Future<SimpleHttpResponse> current = inFlight;
+            if (current != null && !current.isDone()) {
+                current.cancel(true);
+            }
+        }
+    }
+
+    // Exponential backoff with equal jitter, unless the server says when to come back
+    private long backoff(int attempt, Header retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.getValue().trim()));
+            } catch (NumberFormatException e) {
+                // HTTP-date form, fall back to our own backoff
+            }
+        }
+        long ceiling = retryBackoffMillis << attempt;
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private void record(String status, long startNanos) {
+        Timer.builder("gemini.http.latency")
+                .description("Latency of individual Gemini HTTP attempts")
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private URI endpoint() {
+        return UriComponentsBuilder.fromHttpUrl(geminiConfig.getApiUrl())
+                .queryParam("key", geminiConfig.getApiKey())
+                .build()
+                .toUri();
+    }
+
+    private URI streamEndpoint() {
+        return UriComponentsBuilder.fromHttpUrl(geminiConfig.getStreamUrl())
+                .queryParam("alt", "sse")
+                .queryParam("key", geminiConfig.getApiKey())
+                .build()
+                .toUri();
+    }
+
+    private String toJson(Map<String, Object> request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
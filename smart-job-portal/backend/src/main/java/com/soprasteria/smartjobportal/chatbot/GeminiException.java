@@ -0,0 +1,20 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+/**
+ * Non-2xx response from the Gemini API. The message carries the status code
+ * and the error body, whose status field (e.g. NOT_FOUND, PERMISSION_DENIED)
+ * says what went wrong.
+ */
+public class GeminiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public GeminiException(int statusCode, String body) {
+        super("Gemini API returned " + statusCode + ": " + body);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
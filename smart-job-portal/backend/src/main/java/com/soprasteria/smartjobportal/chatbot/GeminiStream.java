@@ -0,0 +1,250 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One streamGenerateContent call, read as server-sent events. Each event is
+ * a partial Gemini response, handed to the {@link Listener} as soon as it is
+ * complete.
+ *
+ * Reading is flow-controlled: when the listener reports that it cannot take
+ * more, no further read capacity is granted to the connection until
+ * {@link #resume()} is called, so a slow client slows the upstream read
+ * instead of buffering the answer in memory.
+ */
+public class GeminiStream implements AsyncResponseConsumer<Void> {
+
+    /**
+     * Receives the events of a stream. Callbacks run on the HTTP client's
+     * I/O threads and must not block.
+     */
+    public interface Listener {
+
+        /**
+         * @return false to pause reading until {@link GeminiStream#resume()}
+         */
+        boolean onChunk(Map<String, Object> chunk);
+
+        void onComplete();
+
+        void onError(Throwable error);
+    }
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    // Bytes the connection may read ahead of the listener
+    private static final int READ_WINDOW = 8 * 1024;
+    private static final int MAX_ERROR_BODY = 64 * 1024;
+
+    private final Listener listener;
+    private final ObjectMapper objectMapper;
+    private final Runnable onFinish;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private final StringBuilder eventData = new StringBuilder();
+
+    private volatile CapacityChannel capacityChannel;
+    private volatile Future<Void> exchange;
+    private volatile boolean cancelled;
+    private FutureCallback<Void> resultCallback;
+    private int statusCode;
+    private ByteArrayOutputStream errorBody;
+
+    GeminiStream(Listener listener, ObjectMapper objectMapper, Runnable onFinish) {
+        this.listener = listener;
+        this.objectMapper = objectMapper;
+        this.onFinish = onFinish;
+    }
+
+    void start(Future<Void> exchange) {
+        this.exchange = exchange;
+        if (finished.get()) {
+            exchange.cancel(true);
+        }
+    }
+
+    /**
+     * Grants read capacity again after the listener paused the stream.
+     */
+    public void resume() {
+        if (paused.compareAndSet(true, false)) {
+            CapacityChannel channel = capacityChannel;
+            if (channel != null) {
+                try {
+                    channel.update(READ_WINDOW);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the upstream call, e.g. because the client went away. The
+     * listener is not called back.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (finished.compareAndSet(false, true)) {
+            onFinish.run();
+        }
+        Future<Void> current = exchange;
+        if (current != null) {
+            current.cancel(true);
+        }
+    }
+
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                FutureCallback<Void> resultCallback) {
+        this.resultCallback = resultCallback;
+        this.statusCode = response.getCode();
+        if (statusCode / 100 != 2) {
+            errorBody = new ByteArrayOutputStream();
+        }
+        if (entityDetails == null) {
+            streamEnd(null);
+        }
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        checkNotCancelled();
+        this.capacityChannel = capacityChannel;
+        if (!paused.get()) {
+            capacityChannel.update(READ_WINDOW);
+        }
+    }
+
+    @Override
+    public void consume(ByteBuffer src) throws IOException {
+        checkNotCancelled();
+        if (errorBody != null) {
+            byte[] bytes = new byte[src.remaining()];
+            src.get(bytes);
+            errorBody.write(bytes, 0, Math.min(bytes.length, MAX_ERROR_BODY - errorBody.size()));
+            return;
+        }
+        while (src.hasRemaining() && !finished.get()) {
+            byte b = src.get();
+            if (b == '\n') {
+                // Splitting on the newline byte never cuts a UTF-8 sequence
+                onLine(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+    }
+
+    // Cancelling the exchange of a kept-alive connection does not stop the
+    // client from reading the rest of the body to reuse the connection;
+    // failing the consumer makes it close the connection instead.
+    private void checkNotCancelled() throws IOException {
+        if (cancelled) {
+            throw new InterruptedIOException("Gemini stream cancelled");
+        }
+    }
+
+    private void onLine(String text) {
+        if (text.isEmpty()) {
+            dispatchEvent();
+        } else if (text.startsWith("data:")) {
+            if (!eventData.isEmpty()) {
+                eventData.append('\n');
+            }
+            eventData.append(text.substring(5).stripLeading());
+        }
+        // Other fields (event, id, retry) and comments carry nothing we use
+    }
+
+    private void dispatchEvent() {
+        if (eventData.isEmpty()) {
+            return;
+        }
+        String data = eventData.toString();
+        eventData.setLength(0);
+        Map<String, Object> chunk;
+        try {
+            chunk = objectMapper.readValue(data, JSON_OBJECT);
+        } catch (IOException e) {
+            fail(e);
+            cancel();
+            return;
+        }
+        // Paused before the listener decides, so a resume() racing with it is not lost
+        paused.set(true);
+        if (listener.onChunk(chunk)) {
+            paused.set(false);
+        }
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+        if (errorBody != null) {
+            fail(new GeminiException(statusCode, errorBody.toString(StandardCharsets.UTF_8)));
+            return;
+        }
+        // A last event without the closing blank line
+        if (line.size() > 0) {
+            onLine(line.toString(StandardCharsets.UTF_8));
+            line.reset();
+        }
+        dispatchEvent();
+        if (finished.compareAndSet(false, true)) {
+            onFinish.run();
+            listener.onComplete();
+        }
+        if (resultCallback != null) {
+            resultCallback.completed(null);
+        }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        fail(cause);
+    }
+
+    void fail(Throwable cause) {
+        if (finished.compareAndSet(false, true)) {
+            onFinish.run();
+            if (!(cause instanceof CancellationException)) {
+                listener.onError(cause);
+            }
+        }
+    }
+
+    @Override
+    public void releaseResources() {
+        capacityChannel = null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for chatbot prompts: while an upstream call for a prompt key
+ * is in flight, identical prompts join it instead of starting their own, and
+ * every caller receives its answer or its failure. The entry is removed as
+ * soon as the call completes, so the next identical prompt after that goes
+ * to the response cache or upstream again.
+ */
+@Component
+public class InFlightPrompts {
+
+    private final Map<String, CompletableFuture<String>> calls = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public InFlightPrompts(@Value("${chatbot.coalescing.timeout-ms:${gemini.http.total-timeout-ms:60000}}") long timeoutMillis,
+                           MeterRegistry meterRegistry) {
+        this.timeoutMillis = timeoutMillis;
+        this.upstreamCalls = Counter.builder("chatbot.upstream.calls")
+                .description("Chatbot prompts that started their own upstream call")
+                .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("chatbot.upstream.coalesced")
+                .description("Chatbot prompts that joined an identical in-flight call, i.e. upstream calls saved")
+                .register(meterRegistry);
+        Gauge.builder("chatbot.upstream.in-flight", calls, Map::size)
+                .description("Distinct chatbot prompts with an upstream call in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the answer of the in-flight call for the key, starting one with
+     * {@code call} if there is none. Each caller waits at most the coalescing
+     * timeout, without affecting the shared call or the other callers.
+     */
+    public CompletableFuture<String> join(String key, Supplier<CompletableFuture<String>> call) {
+        CompletableFuture<String> shared = new CompletableFuture<>();
+        CompletableFuture<String> existing = calls.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return existing.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        upstreamCalls.increment();
+        CompletableFuture<String> upstream;
+        try {
+            upstream = call.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((answer, error) -> {
+            // Removed before completing, so a caller arriving now starts a fresh call
+            calls.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(answer);
+            }
+        });
+        return shared.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
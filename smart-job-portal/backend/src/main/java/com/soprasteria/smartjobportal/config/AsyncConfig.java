@@ -0,0 +1,75 @@
+package com.soprasteria.smartjobportal.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${auth.password.hashing.threads:0}")
+    private int passwordHashThreads;
+
+    @Value("${auth.password.hashing.queue-capacity:50}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${chatbot.stream.send-threads:16}")
+    private int chatStreamSendThreads;
+
+    /**
+     * Single worker so recomputations for the same user or job never interleave.
+     * MatchScoreService coalesces changes and keeps at most one task queued, so
+     * a rejection only happens on shutdown and never runs a recomputation on
+     * the publishing thread.
+     */
+    @Bean(name = "matchScoreExecutor")
+    public ThreadPoolTaskExecutor matchScoreExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("match-score-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads for password hashing, one per core unless configured. BCrypt is
+     * CPU-bound, so more threads would only queue on the cores; when the queue
+     * is full submissions are rejected and the request fails fast.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int threads = passwordHashThreads > 0 ? passwordHashThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(passwordHashQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads writing streamed chatbot answers to the clients. A write blocks
+     * while the client's connection is full, so these are kept apart from the
+     * HTTP client's I/O threads; each stream uses at most one at a time.
+     */
+    @Bean(name = "chatStreamExecutor")
+    public ThreadPoolTaskExecutor chatStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(chatStreamSendThreads);
+        executor.setMaxPoolSize(chatStreamSendThreads);
+        executor.setThreadNamePrefix("chat-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,9 +1,17 @@
 package com.soprasteria.smartjobportal.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class GeminiConfig {
@@ -14,9 +22,62 @@ public class GeminiConfig {
     @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash-latest:generateContent}")
     private String apiUrl;
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    // Defaults to the streamGenerateContent method of the model in gemini.api.url
+    @Value("${gemini.api.stream-url:}")
+    private String streamUrl;
+
+    @Value("${gemini.http.max-connections:32}")
+    private int maxConnections;
+
+    @Value("${gemini.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMillis;
+
+    @Value("${gemini.http.read-timeout-ms:30000}")
+    private long readTimeoutMillis;
+
+    @Value("${gemini.http.idle-eviction-ms:60000}")
+    private long idleEvictionMillis;
+
+    /**
+     * Async HTTP client for the Gemini API. Connections are pooled and kept
+     * alive between calls, so only the first call to the host pays for the
+     * TLS handshake; connections idle for longer than the eviction time are
+     * closed before the server drops them. The read timeout bounds the
+     * silence between packets, the total time of a call is bounded by
+     * {@code GeminiClient}.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient geminiHttpClient(MeterRegistry meterRegistry) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .build())
+                .build();
+
+        Gauge.builder("gemini.http.pool.leased", connectionManager, pool -> pool.getTotalStats().getLeased())
+                .description("Gemini connections currently in use")
+                .register(meterRegistry);
+        Gauge.builder("gemini.http.pool.available", connectionManager, pool -> pool.getTotalStats().getAvailable())
+                .description("Idle Gemini connections kept alive in the pool")
+                .register(meterRegistry);
+        Gauge.builder("gemini.http.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending())
+                .description("Gemini calls waiting for a pooled connection")
+                .register(meterRegistry);
+        Gauge.builder("gemini.http.pool.max", connectionManager, pool -> pool.getTotalStats().getMax())
+                .description("Maximum Gemini connections")
+                .register(meterRegistry);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMillis))
+                // Retries are done by GeminiClient, with backoff and only for 429 and 503
+                .disableAutomaticRetries()
+                .build();
+        client.start();
+        return client;
     }
 
     public String getApiKey() {
@@ -26,4 +87,11 @@ public class GeminiConfig {
     public String getApiUrl() {
         return apiUrl;
     }
+
+    public String getStreamUrl() {
+        if (streamUrl != null && !streamUrl.isEmpty()) {
+            return streamUrl;
+        }
+        return apiUrl.replace(":generateContent", ":streamGenerateContent");
+    }
 }
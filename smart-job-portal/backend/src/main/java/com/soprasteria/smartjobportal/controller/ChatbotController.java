@@ -4,11 +4,15 @@ import com.soprasteria.smartjobportal.dto.ChatbotDTO.ChatRequest;
 import com.soprasteria.smartjobportal.dto.ChatbotDTO.ChatResponse;
 import com.soprasteria.smartjobportal.service.ChatbotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -18,13 +22,25 @@ public class ChatbotController {
     private final ChatbotService chatbotService;
 
     /**
-     * Endpoint to process chatbot messages
+     * Endpoint to process chatbot messages. Handled asynchronously: the
+     * servlet thread is released while the model generates the answer.
      * @param chatRequest The user's chat message
      * @return AI-generated response
      */
     @PostMapping
-    public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest chatRequest) {
-        ChatResponse response = chatbotService.processChat(chatRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ChatResponse>> chat(@RequestBody ChatRequest chatRequest) {
+        return chatbotService.processChat(chatRequest).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint streaming the answer as server-sent events while the model
+     * generates it: {@code chunk} events with parts of the answer, then
+     * {@code done}, or {@code error} with a message to show instead.
+     * @param chatRequest The user's chat message
+     * @return The event stream
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestBody ChatRequest chatRequest) {
+        return chatbotService.streamChat(chatRequest);
     }
 }
@@ -1,14 +1,29 @@
 package com.soprasteria.smartjobportal.controller;
 
+import com.soprasteria.smartjobportal.dto.InvalidCursorException;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobPage;
 import com.soprasteria.smartjobportal.dto.JobDTO.JobRequest;
 import com.soprasteria.smartjobportal.dto.JobDTO.JobResponse;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobSummary;
 import com.soprasteria.smartjobportal.service.JobService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -17,16 +32,35 @@ public class JobController {
 
     private final JobService jobService;
 
+    @Value("${catalog.http.s-maxage:30}")
+    private long sharedMaxAge;
+
     @GetMapping
-    public ResponseEntity<List<JobResponse>> getAllJobs() {
-        List<JobResponse> jobs = jobService.getAllJobs();
-        return ResponseEntity.ok(jobs);
+    public ResponseEntity<JobPage<JobSummary>> getAllJobs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        Long version = jobService.getCatalogVersion();
+        String eTag = version != null ? "jobs-" + version : null;
+        if (eTag != null && isAnonymous(request) && request.checkNotModified(eTag)) {
+            // The client already holds this version, skip building the page
+            return notModified();
+        }
+        
+        JobPage<JobSummary> jobs = jobService.getAllJobs(cursor, limit);
+        return conditional(eTag, jobs.getContent().stream().map(JobSummary::getApplied).toList(), request).body(jobs);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<JobResponse> getJobById(@PathVariable Integer id) {
+    public ResponseEntity<JobResponse> getJobById(@PathVariable Integer id, WebRequest request) {
+        Long version = jobService.getJobVersion(id);
+        String eTag = version != null ? "job-" + id + "-" + version : null;
+        if (eTag != null && isAnonymous(request) && request.checkNotModified(eTag)) {
+            return notModified();
+        }
+        
         JobResponse job = jobService.getJobById(id);
-        return ResponseEntity.ok(job);
+        return conditional(eTag, Collections.singletonList(job.getApplied()), request).body(job);
     }
 
     @PostMapping
@@ -37,22 +71,91 @@ public class JobController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<JobResponse>> searchJobs(@RequestParam(required = false) String keyword) {
-        List<JobResponse> jobs = jobService.searchJobs(keyword);
+    public ResponseEntity<JobPage<JobSummary>> searchJobs(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) List<String> employmentType,
+            @RequestParam(required = false) List<String> experienceLevel,
+            @RequestParam(required = false) List<String> location,
+            @RequestParam(required = false) List<String> salaryBand,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        JobFilter filter = JobFilter.builder()
+                .employmentType(employmentType)
+                .experienceLevel(experienceLevel)
+                .location(location)
+                .salaryBand(salaryBand)
+                .build();
+        JobPage<JobSummary> jobs = jobService.searchJobs(keyword, filter, cursor, limit);
         return ResponseEntity.ok(jobs);
     }
 
     @GetMapping("/matching")
     @PreAuthorize("hasRole('JOBSEEKER')")
-    public ResponseEntity<List<JobResponse>> getMatchingJobs() {
-        List<JobResponse> matchingJobs = jobService.getMatchingJobs();
+    public ResponseEntity<List<JobSummary>> getMatchingJobs(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) BigDecimal minScore) {
+        List<JobSummary> matchingJobs = jobService.getMatchingJobs(limit, minScore);
         return ResponseEntity.ok(matchingJobs);
     }
     
     @GetMapping("/my-posted-jobs")
     @PreAuthorize("hasRole('RECRUITER') or hasRole('ADMIN')")
-    public ResponseEntity<List<JobResponse>> getMyPostedJobs() {
-        List<JobResponse> myJobs = jobService.getJobsPostedByCurrentUser();
+    public ResponseEntity<JobPage<JobSummary>> getMyPostedJobs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        JobPage<JobSummary> myJobs = jobService.getJobsPostedByCurrentUser(cursor, limit);
         return ResponseEntity.ok(myJobs);
     }
+
+    /**
+     * Adds validators and caching headers to a public job response. Anonymous
+     * responses only depend on the catalog version and may be stored by shared
+     * caches; authenticated ones also carry the caller's applied flags, which
+     * are folded into the ETag, and stay private. A matching If-None-Match on
+     * the returned ETag is answered with 304 without writing the body.
+     */
+    private ResponseEntity.BodyBuilder conditional(String eTag, List<Boolean> appliedFlags, WebRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (eTag == null) {
+            return response;
+        }
+        if (isAnonymous(request)) {
+            return response.eTag(eTag).cacheControl(publicCacheControl()).varyBy(HttpHeaders.AUTHORIZATION);
+        }
+        
+        BitSet applied = new BitSet(appliedFlags.size());
+        for (int i = 0; i < appliedFlags.size(); i++) {
+            if (Boolean.TRUE.equals(appliedFlags.get(i))) {
+                applied.set(i);
+            }
+        }
+        String appliedMask = HexFormat.of().formatHex(applied.toByteArray());
+        return response.eTag(eTag + "-a" + appliedMask).cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    private <T> ResponseEntity<T> notModified() {
+        // checkNotModified has already set the status and the ETag header
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(publicCacheControl())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .build();
+    }
+
+    private CacheControl publicCacheControl() {
+        // Browsers revalidate on every use; a CDN may serve its copy for a short while
+        return CacheControl.maxAge(0, TimeUnit.SECONDS)
+                .sMaxAge(sharedMaxAge, TimeUnit.SECONDS)
+                .mustRevalidate()
+                .cachePublic();
+    }
+
+    private static boolean isAnonymous(WebRequest request) {
+        return request.getUserPrincipal() == null;
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException e) {
+        // The cursor is opaque to clients; they should start over from the first page
+        return ResponseEntity.badRequest().body(Map.of("error", "Bad Request", "message", "Invalid cursor"));
+    }
 }
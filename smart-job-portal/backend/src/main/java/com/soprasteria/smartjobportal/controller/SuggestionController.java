@@ -0,0 +1,29 @@
+package com.soprasteria.smartjobportal.controller;
+
+import com.soprasteria.smartjobportal.dto.SuggestionDTO.Suggestion;
+import com.soprasteria.smartjobportal.dto.SuggestionDTO.Type;
+import com.soprasteria.smartjobportal.search.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+public class SuggestionController {
+
+    private final SuggestionService suggestionService;
+
+    @GetMapping
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Type type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, type, limit));
+    }
+}
@@ -0,0 +1,11 @@
+package com.soprasteria.smartjobportal.dto;
+
+/**
+ * A paging cursor that was not issued by this server, or no longer decodes.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid cursor: " + cursor, cause);
+    }
+}
@@ -1,5 +1,7 @@
 package com.soprasteria.smartjobportal.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.soprasteria.smartjobportal.model.Job;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,8 +9,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 public class JobDTO {
 
@@ -30,7 +37,7 @@ public class JobDTO {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @AllArgsConstructor
     @NoArgsConstructor
     public static class JobResponse {
@@ -48,6 +55,9 @@ public class JobDTO {
         private String postedByName;
         private BigDecimal matchPercentage;
         private Boolean applied;
+        // Only set on keyword search results
+        private Float score;
+        private String highlight;
 
         public static JobResponse fromEntity(Job job) {
             return JobResponse.builder()
@@ -57,8 +67,8 @@ public class JobDTO {
                     .skills(job.getSkills())
                     .location(job.getLocation())
                     .salary(job.getSalary() != null ? job.getSalary().toString() : null)
-                    .employmentType(job.getEmploymentType().getDisplayName())
-                    .experienceLevel(job.getExperienceLevel().getDisplayName())
+                    .employmentType(job.getEmploymentType() != null ? job.getEmploymentType().getDisplayName() : null)
+                    .experienceLevel(job.getExperienceLevel() != null ? job.getExperienceLevel().getDisplayName() : null)
                     .company(job.getCompany())
                     .postedDate(formatDate(job.getPostedDate()))
                     .postedById(job.getPostedBy() != null ? job.getPostedBy().getId() : null)
@@ -66,8 +76,133 @@ public class JobDTO {
                     .build();
         }
 
-        private static String formatDate(LocalDateTime dateTime) {
+        static String formatDate(LocalDateTime dateTime) {
             return dateTime != null ? dateTime.format(DATE_FORMATTER) : null;
         }
     }
+
+    /**
+     * List view of a job: everything a job card shows, without the description.
+     * The full job is served by {@code /api/jobs/{id}}.
+     */
+    @Data
+    @Builder(toBuilder = true)
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class JobSummary {
+        private Integer id;
+        private String title;
+        private String skills;
+        private String company;
+        private String location;
+        private String salary;
+        private String employmentType;
+        private String experienceLevel;
+        private String postedDate;
+        private Integer postedById;
+        private String postedByName;
+        private BigDecimal matchPercentage;
+        private Boolean applied;
+        // Only set on keyword search results
+        private Float score;
+        private String highlight;
+        // Keyset position of this job, used to build the next page cursor
+        @JsonIgnore
+        private JobCursor position;
+
+        // Used by the JPQL constructor expression in JobRepository
+        public JobSummary(Integer id, String title, String skills, String company, String location,
+                          BigDecimal salary, Job.EmploymentType employmentType, Job.ExperienceLevel experienceLevel,
+                          LocalDateTime postedDate, Integer postedById, String postedByName) {
+            this.id = id;
+            this.title = title;
+            this.skills = skills;
+            this.company = company;
+            this.location = location;
+            this.salary = salary != null ? salary.toString() : null;
+            this.employmentType = employmentType != null ? employmentType.getDisplayName() : null;
+            this.experienceLevel = experienceLevel != null ? experienceLevel.getDisplayName() : null;
+            this.postedDate = JobResponse.formatDate(postedDate);
+            this.postedById = postedById;
+            this.postedByName = postedByName;
+            this.position = new JobCursor(postedDate, id);
+        }
+
+        public static JobSummary fromEntity(Job job) {
+            return new JobSummary(job.getId(), job.getTitle(), job.getSkills(), job.getCompany(), job.getLocation(),
+                    job.getSalary(), job.getEmploymentType(), job.getExperienceLevel(), job.getPostedDate(),
+                    job.getPostedBy() != null ? job.getPostedBy().getId() : null,
+                    job.getPostedBy() != null ? job.getPostedBy().getFullName() : null);
+        }
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class JobPage<T> {
+        private List<T> content;
+        private String nextCursor;
+        private boolean hasMore;
+        private int size;
+        // Only set on search results: facet name -> value -> number of matching jobs
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Map<String, Map<String, Integer>> facets;
+    }
+
+    /**
+     * Structured search filters. Several values for one facet match any of
+     * them; selections on different facets must all match.
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class JobFilter {
+        private List<String> employmentType;
+        private List<String> experienceLevel;
+        private List<String> location;
+        private List<String> salaryBand;
+
+        public boolean isEmpty() {
+            return isEmpty(employmentType) && isEmpty(experienceLevel) && isEmpty(location) && isEmpty(salaryBand);
+        }
+
+        private static boolean isEmpty(List<String> values) {
+            return values == null || values.isEmpty();
+        }
+    }
+
+    /**
+     * Opaque keyset position in the (postedDate DESC, id DESC) ordering of jobs.
+     * Clients only ever echo back the token they received as {@code nextCursor}.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class JobCursor {
+        private LocalDateTime postedDate;
+        private Integer id;
+
+        public String encode() {
+            // Rows without a posted date encode it as empty
+            String raw = (postedDate == null ? "" : postedDate.toString()) + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static JobCursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new JobCursor(
+                        separator == 0 ? null : LocalDateTime.parse(raw.substring(0, separator)),
+                        Integer.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidCursorException(token, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.soprasteria.smartjobportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+public class SuggestionDTO {
+
+    public enum Type {
+        SKILL, TITLE
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String text;
+        private Type type;
+        // Number of jobs and profiles using the term
+        private long frequency;
+    }
+}
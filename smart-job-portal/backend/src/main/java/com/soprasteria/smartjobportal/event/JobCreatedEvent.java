@@ -0,0 +1,7 @@
+package com.soprasteria.smartjobportal.event;
+
+/**
+ * Published by {@code JobService.createJob} inside its transaction.
+ */
+public record JobCreatedEvent(Integer jobId) {
+}
@@ -0,0 +1,7 @@
+package com.soprasteria.smartjobportal.event;
+
+/**
+ * Published by {@code UserService.updateUserSkills} inside its transaction.
+ */
+public record UserSkillsUpdatedEvent(Integer userId) {
+}
@@ -0,0 +1,114 @@
+package com.soprasteria.smartjobportal.matching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trigram index for finding the closest known term within a small
+ * edit distance. Terms are padded with boundary markers, so a term within k
+ * edits of the query shares at least {@code grams - 3k} trigrams with it; only
+ * candidates passing that count and the length filter are compared with a
+ * banded Levenshtein distance.
+ */
+final class NGramIndex {
+
+    private static final int N = 3;
+
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Set<String> known = new HashSet<>();
+
+    synchronized void add(String term) {
+        if (!known.add(term)) {
+            return;
+        }
+        int id = terms.size();
+        terms.add(term);
+        for (String gram : grams(term)) {
+            postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(id);
+        }
+    }
+
+    synchronized boolean contains(String term) {
+        return known.contains(term);
+    }
+
+    /**
+     * The known term with the fewest edits from {@code query}, at most
+     * {@code maxEdits}, or null. Ties go to the term added first.
+     */
+    synchronized String closest(String query, int maxEdits) {
+        if (maxEdits <= 0) {
+            return null;
+        }
+        Set<String> queryGrams = grams(query);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (Integer id : postings.getOrDefault(gram, List.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+
+        int required = Math.max(1, queryGrams.size() - N * maxEdits);
+        String best = null;
+        int bestDistance = maxEdits + 1;
+        int bestId = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            String term = terms.get(candidate.getKey());
+            if (candidate.getValue() < required || Math.abs(term.length() - query.length()) > maxEdits) {
+                continue;
+            }
+            int distance = distance(query, term, Math.min(bestDistance, maxEdits));
+            if (distance > maxEdits) {
+                continue;
+            }
+            if (distance < bestDistance || (distance == bestDistance && candidate.getKey() < bestId)) {
+                best = term;
+                bestDistance = distance;
+                bestId = candidate.getKey();
+            }
+        }
+        return best;
+    }
+
+    private static Set<String> grams(String term) {
+        String padded = "^" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + N));
+        }
+        if (grams.isEmpty()) {
+            grams.add(padded);
+        }
+        return grams;
+    }
+
+    // Levenshtein distance, or limit + 1 as soon as it is known to exceed limit
+    private static int distance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
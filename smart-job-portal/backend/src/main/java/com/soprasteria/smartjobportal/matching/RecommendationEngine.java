@@ -0,0 +1,127 @@
+package com.soprasteria.smartjobportal.matching;
+
+import com.soprasteria.smartjobportal.matching.SkillMatcher.SkillProfile;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores candidate jobs against a user's skills in parallel and keeps only the
+ * best K. Each fork-join leaf fills a bounded min-heap, and heaps are merged on
+ * the way up, so memory stays at O(K) per task whatever the catalog size.
+ */
+@Component
+public class RecommendationEngine {
+
+    // Below this many candidates a task scores sequentially instead of forking
+    private static final int SPLIT_THRESHOLD = 2048;
+
+    // Best first: highest score, then the most recent job ID
+    public static final Comparator<ScoredJob> BEST_FIRST = Comparator
+            .comparingDouble(ScoredJob::score)
+            .thenComparingInt(ScoredJob::jobId)
+            .reversed();
+
+    private final SkillMatcher skillMatcher;
+    private final ForkJoinPool pool;
+
+    public RecommendationEngine(SkillMatcher skillMatcher,
+                                @Value("${matching.parallelism:0}") int parallelism) {
+        this.skillMatcher = skillMatcher;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public record Candidate(int jobId, String skills) {
+    }
+
+    public record ScoredJob(int jobId, double score) {
+    }
+
+    /**
+     * Returns at most {@code limit} candidates scoring strictly above zero and at
+     * least {@code minScore}, best first.
+     */
+    public List<ScoredJob> topK(SkillProfile userSkills, List<Candidate> candidates, int limit, double minScore) {
+        if (userSkills.isEmpty() || candidates.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        ScoringTask task = new ScoringTask(userSkills, candidates, 0, candidates.size(), limit, minScore);
+        PriorityQueue<ScoredJob> heap = candidates.size() <= SPLIT_THRESHOLD ? task.compute() : pool.invoke(task);
+
+        List<ScoredJob> best = new ArrayList<>(heap);
+        best.sort(BEST_FIRST);
+        return best;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private final class ScoringTask extends RecursiveTask<PriorityQueue<ScoredJob>> {
+
+        private final SkillProfile userSkills;
+        private final List<Candidate> candidates;
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final double minScore;
+
+        private ScoringTask(SkillProfile userSkills, List<Candidate> candidates,
+                            int from, int to, int limit, double minScore) {
+            this.userSkills = userSkills;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.minScore = minScore;
+        }
+
+        @Override
+        protected PriorityQueue<ScoredJob> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return scoreRange();
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoringTask left = new ScoringTask(userSkills, candidates, from, middle, limit, minScore);
+            ScoringTask right = new ScoringTask(userSkills, candidates, middle, to, limit, minScore);
+            left.fork();
+            PriorityQueue<ScoredJob> merged = right.compute();
+            for (ScoredJob scored : left.join()) {
+                offer(merged, scored);
+            }
+            return merged;
+        }
+
+        private PriorityQueue<ScoredJob> scoreRange() {
+            // Min-heap on the best-first order: the head is the weakest job kept so far
+            PriorityQueue<ScoredJob> heap = new PriorityQueue<>(Math.min(limit, to - from) + 1, BEST_FIRST.reversed());
+            for (int i = from; i < to; i++) {
+                Candidate candidate = candidates.get(i);
+                double score = skillMatcher.score(userSkills, skillMatcher.profile(candidate.skills()));
+                if (score > 0 && score >= minScore) {
+                    offer(heap, new ScoredJob(candidate.jobId(), score));
+                }
+            }
+            return heap;
+        }
+
+        private void offer(PriorityQueue<ScoredJob> heap, ScoredJob scored) {
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (BEST_FIRST.compare(scored, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.soprasteria.smartjobportal.matching;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skill overlap scoring shared by job matching and applications.
+ *
+ * Skill names are resolved to their canonical form by {@link SkillNormalizer}
+ * and interned into dense integer IDs the first time they are seen, so "k8s"
+ * and "kubernetes" share an ID while "java" and "javascript" do not. Scoring a
+ * pre-parsed pair is then a few word-wise ANDs with no allocation.
+ *
+ * The curated skills of the synonym file are interned first and get the
+ * lowest IDs. Free-text skills are interned up to matching.skills.max-interned
+ * names; past that a new generation of IDs and cached profiles is started, so
+ * neither the ID table nor the bitsets grow without bound. Resolution is fixed
+ * once the normalizer is built, so cached profiles never go stale otherwise.
+ */
+@Component
+public class SkillMatcher {
+
+    private static final int MAX_CACHED_PROFILES = 10_000;
+
+    private final SkillNormalizer skillNormalizer;
+    private final int maxInterned;
+    private volatile Generation generation;
+
+    public SkillMatcher(SkillNormalizer skillNormalizer,
+                        @Value("${matching.skills.max-interned:20000}") int maxInterned) {
+        this.skillNormalizer = skillNormalizer;
+        this.maxInterned = Math.max(maxInterned, skillNormalizer.curatedNames().size() + 1);
+        this.generation = newGeneration();
+    }
+
+    /**
+     * Parsed form of a comma-separated skill list: distinct skill IDs plus the
+     * same IDs as a bitset. IDs only compare within the generation they were
+     * interned in.
+     */
+    public static final class SkillProfile {
+        private static final SkillProfile EMPTY = new SkillProfile(null, null, new int[0], new long[0]);
+
+        private final Generation generation;
+        private final String skills;
+        private final int[] ids;
+        private final long[] bits;
+
+        private SkillProfile(Generation generation, String skills, int[] ids, long[] bits) {
+            this.generation = generation;
+            this.skills = skills;
+            this.ids = ids;
+            this.bits = bits;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public boolean isEmpty() {
+            return ids.length == 0;
+        }
+    }
+
+    // Skill IDs and the profiles built from them
+    private static final class Generation {
+        private final Map<String, Integer> skillIds = new ConcurrentHashMap<>();
+        private final Map<String, SkillProfile> profiles = new ConcurrentHashMap<>();
+    }
+
+    public SkillProfile profile(String skills) {
+        if (skills == null || skills.isBlank()) {
+            return SkillProfile.EMPTY;
+        }
+        Generation current = generation;
+        SkillProfile cached = current.profiles.get(skills);
+        if (cached != null) {
+            return cached;
+        }
+
+        SkillProfile parsed = parse(skills);
+        if (parsed.generation != null) {
+            if (parsed.generation.profiles.size() >= MAX_CACHED_PROFILES) {
+                parsed.generation.profiles.clear();
+            }
+            parsed.generation.profiles.put(skills, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Percentage of the job's skills that the user has, comparing canonical
+     * skill IDs. Returns 0 when either side is empty.
+     */
+    public double score(SkillProfile userSkills, SkillProfile jobSkills) {
+        if (userSkills.isEmpty() || jobSkills.isEmpty()) {
+            return 0;
+        }
+        // A new generation was started between the two; compare afresh in it
+        while (userSkills.generation != jobSkills.generation) {
+            userSkills = profile(userSkills.skills);
+            jobSkills = profile(jobSkills.skills);
+        }
+        int words = Math.min(userSkills.bits.length, jobSkills.bits.length);
+        int matchingSkills = 0;
+        for (int i = 0; i < words; i++) {
+            matchingSkills += Long.bitCount(userSkills.bits[i] & jobSkills.bits[i]);
+        }
+        return (double) matchingSkills / jobSkills.size() * 100;
+    }
+
+    public BigDecimal calculateMatchPercentage(String userSkills, String jobSkills) {
+        if (userSkills == null || jobSkills == null) {
+            return BigDecimal.ZERO;
+        }
+        return toPercentage(score(profile(userSkills), profile(jobSkills)));
+    }
+
+    public static BigDecimal toPercentage(double score) {
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private SkillProfile parse(String skills) {
+        while (true) {
+            Generation current = generation;
+            int[] ids = Arrays.stream(skills.split(","))
+                    .filter(s -> !s.isBlank())
+                    .map(skillNormalizer::canonicalize)
+                    .mapToInt(name -> intern(current, name))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            if (ids.length == 0) {
+                return SkillProfile.EMPTY;
+            }
+            if (ids[0] < 0) {
+                // The generation is full and has been replaced, parse again in the new one
+                continue;
+            }
+
+            long[] bits = new long[(ids[ids.length - 1] >> 6) + 1];
+            for (int id : ids) {
+                bits[id >> 6] |= 1L << id;
+            }
+            return new SkillProfile(current, skills, ids, bits);
+        }
+    }
+
+    // ID of the name in the given generation, or -1 if that generation is full
+    private int intern(Generation current, String canonical) {
+        Integer id = current.skillIds.get(canonical);
+        if (id != null) {
+            return id;
+        }
+        synchronized (current.skillIds) {
+            id = current.skillIds.get(canonical);
+            if (id != null) {
+                return id;
+            }
+            if (current.skillIds.size() >= maxInterned) {
+                rollOver(current);
+                return -1;
+            }
+            id = current.skillIds.size();
+            current.skillIds.put(canonical, id);
+            return id;
+        }
+    }
+
+    private synchronized void rollOver(Generation full) {
+        if (generation == full) {
+            generation = newGeneration();
+        }
+    }
+
+    private Generation newGeneration() {
+        Generation fresh = new Generation();
+        for (String name : skillNormalizer.curatedNames()) {
+            fresh.skillIds.putIfAbsent(name, fresh.skillIds.size());
+        }
+        return fresh;
+    }
+}
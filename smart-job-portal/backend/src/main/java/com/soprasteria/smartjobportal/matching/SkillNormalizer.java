@@ -0,0 +1,141 @@
+package com.soprasteria.smartjobportal.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps free-text skill names to canonical names. A name resolves, in order, to
+ * itself if it is a canonical name of the synonym file, to its entry in the
+ * synonym file, to the closest canonical name of the synonym file within a few
+ * edits, and otherwise to itself.
+ *
+ * The synonym file has one canonical name per line followed by its aliases,
+ * e.g. {@code kubernetes: k8s, kube}; blank lines and lines starting with
+ * {@code #} are ignored. Only the curated names of that file are fuzzy-match
+ * targets, never names users entered, so resolution does not depend on what
+ * was written first and two distinct user skills are never merged.
+ */
+@Component
+@Slf4j
+public class SkillNormalizer {
+
+    private static final int MAX_CACHED_NAMES = 50_000;
+
+    private final Map<String, String> synonyms = new HashMap<>();
+    private final NGramIndex canonicalNames = new NGramIndex();
+    private final Set<String> curatedNames = new LinkedHashSet<>();
+    private final Map<String, String> resolved = new ConcurrentHashMap<>();
+    private final int maxEdits;
+
+    public SkillNormalizer(ResourceLoader resourceLoader,
+                           @Value("${matching.synonyms.location:classpath:skill-synonyms.txt}") String synonymsLocation,
+                           @Value("${matching.fuzzy.max-edits:2}") int maxEdits) {
+        this.maxEdits = maxEdits;
+        loadSynonyms(resourceLoader.getResource(synonymsLocation));
+    }
+
+    public static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Canonical name for a skill as entered by a user.
+     */
+    public String canonicalize(String name) {
+        String normalized = normalize(name);
+        String cached = resolved.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        String canonical = resolve(normalized);
+        if (resolved.size() >= MAX_CACHED_NAMES) {
+            resolved.clear();
+        }
+        resolved.put(normalized, canonical);
+        return canonical;
+    }
+
+    /**
+     * Canonical name of a skill listed as an alias in the synonym file, or null
+     * if it is not one. Unlike {@link #canonicalize}, no fuzzy match is tried.
+     */
+    public String synonymOf(String name) {
+        return synonyms.get(normalize(name));
+    }
+
+    /**
+     * Canonical names of the synonym file, in file order. Fixed after startup.
+     */
+    public Set<String> curatedNames() {
+        return Collections.unmodifiableSet(curatedNames);
+    }
+
+    private String resolve(String name) {
+        if (name.isEmpty() || canonicalNames.contains(name)) {
+            return name;
+        }
+        String synonym = synonyms.get(name);
+        if (synonym != null) {
+            return synonym;
+        }
+        String closest = canonicalNames.closest(name, allowedEdits(name));
+        return closest != null ? closest : name;
+    }
+
+    // Short names are too close to each other to correct: "c" vs "r", "preact"
+    // vs "react", "nest.js" vs "next.js"
+    private int allowedEdits(String name) {
+        int length = name.length();
+        int edits = length < 8 ? 0 : length < 12 ? 1 : 2;
+        return Math.min(edits, maxEdits);
+    }
+
+    private void loadSynonyms(Resource resource) {
+        if (!resource.exists()) {
+            log.warn("Skill synonym file {} not found, matching without synonyms", resource.getDescription());
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Only whole-line comments, skills such as c# contain the marker
+                if (line.isBlank() || line.trim().startsWith("#")) {
+                    continue;
+                }
+                int separator = line.indexOf(':');
+                if (separator < 0) {
+                    continue;
+                }
+                String canonical = normalize(line.substring(0, separator));
+                canonicalNames.add(canonical);
+                curatedNames.add(canonical);
+                for (String alias : line.substring(separator + 1).split(",")) {
+                    String normalized = normalize(alias);
+                    if (!normalized.isEmpty() && !normalized.equals(canonical)) {
+                        synonyms.put(normalized, canonical);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read skill synonyms from " + resource.getDescription(), e);
+        }
+        log.info("Loaded {} skill synonyms from {}", synonyms.size(), resource.getDescription());
+    }
+}
@@ -3,7 +3,9 @@ package com.soprasteria.smartjobportal.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -11,19 +13,28 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "applications")
+@NamedEntityGraph(name = "Application.withJob",
+        attributeNodes = @NamedAttributeNode(value = "job", subgraph = "job"),
+        subgraphs = @NamedSubgraph(name = "job", attributeNodes = @NamedAttributeNode("postedBy")))
+@Table(name = "applications", indexes = {
+        @Index(name = "idx_applications_user_job", columnList = "user_id, job_id")
+})
 public class Application {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "job_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Job job;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
     
     @Enumerated(EnumType.STRING)
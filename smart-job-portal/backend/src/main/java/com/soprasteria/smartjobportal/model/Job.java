@@ -3,15 +3,23 @@ package com.soprasteria.smartjobportal.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "jobs")
+@NamedEntityGraph(name = "Job.withPoster", attributeNodes = @NamedAttributeNode("postedBy"))
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_posted_date_id", columnList = "posted_date, id"),
+        @Index(name = "idx_jobs_posted_by_posted_date_id", columnList = "posted_by, posted_date, id")
+})
 public class Job {
     
     @Id
@@ -27,6 +35,15 @@ public class Job {
     @Column(columnDefinition = "TEXT")
     private String skills;
     
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "job_skills",
+            joinColumns = @JoinColumn(name = "job_id"),
+            inverseJoinColumns = @JoinColumn(name = "skill_id"),
+            indexes = @Index(name = "idx_job_skills_skill", columnList = "skill_id, job_id"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Skill> skillSet = new HashSet<>();
+    
     private String company;
     
     private String location;
@@ -41,8 +58,10 @@ public class Job {
     @Column(name = "experience_level")
     private ExperienceLevel experienceLevel = ExperienceLevel.ENTRY;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "posted_by")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User postedBy;
     
     @Column(name = "posted_date")
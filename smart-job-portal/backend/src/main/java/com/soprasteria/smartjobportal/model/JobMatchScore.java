@@ -0,0 +1,42 @@
+package com.soprasteria.smartjobportal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_match_scores",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_match_scores_user_job", columnNames = {"user_id", "job_id"}),
+        indexes = {
+                @Index(name = "idx_job_match_scores_user_score", columnList = "user_id, score DESC"),
+                @Index(name = "idx_job_match_scores_job", columnList = "job_id")
+        })
+public class JobMatchScore {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+    
+    @Column(name = "job_id", nullable = false)
+    private Integer jobId;
+    
+    @Column(nullable = false)
+    private double score;
+    
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt = LocalDateTime.now();
+    
+    public JobMatchScore(Integer userId, Integer jobId, double score) {
+        this.userId = userId;
+        this.jobId = jobId;
+        this.score = score;
+    }
+}
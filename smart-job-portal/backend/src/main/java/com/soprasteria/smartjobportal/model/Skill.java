@@ -0,0 +1,29 @@
+package com.soprasteria.smartjobportal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "skills")
+public class Skill {
+    
+    // Longest name the unique index allows; longer free-text entries are cut to it
+    public static final int MAX_NAME_LENGTH = 255;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    // Canonical form: trimmed and lowercased
+    @Column(nullable = false, unique = true, length = MAX_NAME_LENGTH)
+    private String name;
+    
+    public Skill(String name) {
+        this.name = name;
+    }
+}
@@ -3,8 +3,12 @@ package com.soprasteria.smartjobportal.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -36,6 +40,15 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String skills;
     
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "user_skills",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "skill_id"),
+            indexes = @Index(name = "idx_user_skills_skill", columnList = "skill_id, user_id"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Skill> skillSet = new HashSet<>();
+    
     private String company;
     
     private String position;
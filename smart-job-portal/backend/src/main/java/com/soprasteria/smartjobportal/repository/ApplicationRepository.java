@@ -3,15 +3,31 @@ package com.soprasteria.smartjobportal.repository;
 import com.soprasteria.smartjobportal.model.Application;
 import com.soprasteria.smartjobportal.model.Job;
 import com.soprasteria.smartjobportal.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Integer> {
+    // Responses embed the job and its poster's name; the applicant is never serialized
+    // and stays lazy, so each of these is a single joined select
+    @EntityGraph("Application.withJob")
     List<Application> findByUser(User user);
+
+    @EntityGraph("Application.withJob")
     List<Application> findByJob(Job job);
+
+    @EntityGraph("Application.withJob")
+    Optional<Application> findWithJobById(Integer id);
+
     Optional<Application> findByJobAndUser(Job job, User user);
     boolean existsByJobAndUser(Job job, User user);
+
+    @Query("SELECT a.job.id FROM Application a WHERE a.user.id = :userId AND a.job.id IN :jobIds")
+    List<Integer> findAppliedJobIds(@Param("userId") Integer userId, @Param("jobIds") Collection<Integer> jobIds);
 }
@@ -0,0 +1,27 @@
+package com.soprasteria.smartjobportal.repository;
+
+import com.soprasteria.smartjobportal.model.JobMatchScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface JobMatchScoreRepository extends JpaRepository<JobMatchScore, Long> {
+    // Range read on idx_job_match_scores_user_score
+    List<JobMatchScore> findByUserIdAndScoreGreaterThanEqualOrderByScoreDescJobIdDesc(
+            Integer userId, double minScore, Pageable pageable);
+
+    boolean existsByUserId(Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM JobMatchScore s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM JobMatchScore s WHERE s.jobId = :jobId")
+    void deleteByJobId(@Param("jobId") Integer jobId);
+}
@@ -1,22 +1,119 @@
 package com.soprasteria.smartjobportal.repository;
 
+import com.soprasteria.smartjobportal.dto.JobDTO.JobSummary;
 import com.soprasteria.smartjobportal.model.Job;
 import com.soprasteria.smartjobportal.model.User;
+import com.soprasteria.smartjobportal.repository.SkillRepository.TermFrequency;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Integer> {
-    List<Job> findByPostedBy(User postedBy);
-    
-    @Query("SELECT j FROM Job j WHERE " +
-           "LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+
+    // Full job with its poster, for responses that show the poster's name
+    @EntityGraph("Job.withPoster")
+    Optional<Job> findWithPosterById(Integer id);
+
+    @EntityGraph("Job.withPoster")
+    @Query("SELECT j FROM Job j")
+    Page<Job> findAllWithPoster(Pageable pageable);
+
+    // List views skip the description and read only the poster's name
+    String SUMMARY = "SELECT new com.soprasteria.smartjobportal.dto.JobDTO$JobSummary(" +
+            "j.id, j.title, j.skills, j.company, j.location, j.salary, j.employmentType, j.experienceLevel, " +
+            "j.postedDate, p.id, p.fullName) FROM Job j LEFT JOIN j.postedBy p ";
+
+    // Keyset pagination over (posted_date DESC, id DESC); the Pageable only carries the page size
+    @Query(SUMMARY + "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY + "WHERE " +
+           "j.postedDate < :postedDate OR (j.postedDate = :postedDate AND j.id < :id) " +
+           "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> findSummariesAfter(@Param("postedDate") LocalDateTime postedDate,
+                                        @Param("id") Integer id,
+                                        Pageable pageable);
+
+    @Query(SUMMARY + "WHERE j.postedBy = :postedBy " +
+           "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> findSummariesByPostedBy(@Param("postedBy") User postedBy, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE j.postedBy = :postedBy AND " +
+           "(j.postedDate < :postedDate OR (j.postedDate = :postedDate AND j.id < :id)) " +
+           "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> findSummariesByPostedByAfter(@Param("postedBy") User postedBy,
+                                                  @Param("postedDate") LocalDateTime postedDate,
+                                                  @Param("id") Integer id,
+                                                  Pageable pageable);
+
+    @Query(SUMMARY + "WHERE j.id IN :ids")
+    List<JobSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query(SUMMARY + "WHERE " +
+           "(LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(j.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(j.skills) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Job> searchJobs(@Param("keyword") String keyword);
+           "LOWER(j.skills) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> searchJobs(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE " +
+           "(LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(j.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(j.skills) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "(j.postedDate < :postedDate OR (j.postedDate = :postedDate AND j.id < :id)) " +
+           "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobSummary> searchJobsAfter(@Param("keyword") String keyword,
+                                     @Param("postedDate") LocalDateTime postedDate,
+                                     @Param("id") Integer id,
+                                     Pageable pageable);
+    
+    @Query("SELECT j FROM Job j WHERE j.id > :lastId AND j.skills IS NOT NULL AND j.skillSet IS EMPTY ORDER BY j.id")
+    List<Job> findWithoutSkillSet(@Param("lastId") Integer lastId, Pageable pageable);
+
+    @Query("SELECT DISTINCT j FROM Job j JOIN j.skillSet s WHERE s.id IN :skillIds AND j.id > :lastId ORDER BY j.id")
+    List<Job> findWithSkillIn(@Param("skillIds") Collection<Integer> skillIds,
+                              @Param("lastId") Integer lastId,
+                              Pageable pageable);
+
+    /**
+     * Jobs sharing at least one canonical skill with the user. Overlap is the
+     * number of shared skills.
+     */
+    @Query(value = "SELECT js.job_id AS jobId, COUNT(DISTINCT js.skill_id) AS overlap " +
+           "FROM user_skills us " +
+           "JOIN job_skills js ON js.skill_id = us.skill_id " +
+           "WHERE us.user_id = :userId " +
+           "GROUP BY js.job_id " +
+           "ORDER BY overlap DESC",
+           nativeQuery = true)
+    List<SkillOverlap> findSkillOverlaps(@Param("userId") Integer userId);
+
+    interface SkillOverlap {
+        Integer getJobId();
+        Long getOverlap();
+    }
+
+    // Reads only the columns needed to score a job, not the full entity
+    List<JobSkills> findSkillsByIdIn(Collection<Integer> ids);
+
+    interface JobSkills {
+        Integer getId();
+        String getSkills();
+    }
+
+    // Titles are grouped as written; the suggester merges differences in case and spacing
+    @Query("SELECT j.title AS name, COUNT(j) AS frequency FROM Job j WHERE j.title IS NOT NULL GROUP BY j.title")
+    List<TermFrequency> countTitles();
     
     @Query(value = "SELECT j.* FROM jobs j WHERE " +
            "MATCH(j.skills) AGAINST(:skills IN BOOLEAN MODE)", 
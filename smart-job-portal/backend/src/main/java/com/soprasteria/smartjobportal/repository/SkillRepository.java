@@ -0,0 +1,26 @@
+package com.soprasteria.smartjobportal.repository;
+
+import com.soprasteria.smartjobportal.model.Skill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SkillRepository extends JpaRepository<Skill, Integer> {
+    Optional<Skill> findByName(String name);
+    List<Skill> findByNameIn(Collection<String> names);
+
+    @Query("SELECT s.name AS name, COUNT(j) AS frequency FROM Job j JOIN j.skillSet s GROUP BY s.name")
+    List<TermFrequency> countJobUsages();
+
+    @Query("SELECT s.name AS name, COUNT(u) AS frequency FROM User u JOIN u.skillSet s GROUP BY s.name")
+    List<TermFrequency> countUserUsages();
+
+    interface TermFrequency {
+        String getName();
+        Long getFrequency();
+    }
+}
@@ -1,8 +1,13 @@
 package com.soprasteria.smartjobportal.repository;
 
 import com.soprasteria.smartjobportal.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,38 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u FROM User u WHERE u.id > :lastId AND u.skills IS NOT NULL AND u.skillSet IS EMPTY ORDER BY u.id")
+    List<User> findWithoutSkillSet(@Param("lastId") Integer lastId, Pageable pageable);
+
+    @Query("SELECT DISTINCT u FROM User u JOIN u.skillSet s WHERE s.id IN :skillIds AND u.id > :lastId ORDER BY u.id")
+    List<User> findWithSkillIn(@Param("skillIds") Collection<Integer> skillIds,
+                               @Param("lastId") Integer lastId,
+                               Pageable pageable);
+
+    /**
+     * Job seekers sharing at least one canonical skill with the job, the
+     * counterpart of {@link JobRepository#findSkillOverlaps(Integer)}.
+     */
+    @Query(value = "SELECT DISTINCT us.user_id FROM job_skills js " +
+           "JOIN user_skills us ON us.skill_id = js.skill_id " +
+           "JOIN users usr ON usr.id = us.user_id " +
+           "WHERE js.job_id = :jobId AND usr.role = 'JOBSEEKER'",
+           nativeQuery = true)
+    List<Integer> findSeekerIdsSharingSkills(@Param("jobId") Integer jobId);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.skills IS NOT NULL " +
+           "AND NOT EXISTS (SELECT s.id FROM JobMatchScore s WHERE s.userId = u.id)")
+    List<Integer> findIdsWithoutMatchScores(@Param("role") User.Role role);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.skills IS NOT NULL")
+    List<Integer> findIdsWithSkills(@Param("role") User.Role role);
+
+    // Reads only the columns needed to score a user, not the full entity
+    List<UserSkills> findSkillsByIdIn(Collection<Integer> ids);
+
+    interface UserSkills {
+        Integer getId();
+        String getSkills();
+    }
 }
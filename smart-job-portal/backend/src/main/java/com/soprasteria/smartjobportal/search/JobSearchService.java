@@ -0,0 +1,411 @@
+package com.soprasteria.smartjobportal.search;
+
+import com.soprasteria.smartjobportal.catalog.JobFacet;
+import com.soprasteria.smartjobportal.dto.InvalidCursorException;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+import com.soprasteria.smartjobportal.event.JobCreatedEvent;
+import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.repository.JobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over jobs. Searches are ranked with BM25, with field
+ * boosts on title and skills, and carry a highlighted description fragment
+ * instead of the full description. New jobs are indexed once their
+ * transaction commits and become visible when the near-real-time searcher is
+ * refreshed in {@link #index(Job)}; jobs indexed
+ * before or during a rebuild are queued and written once it is done. Facet
+ * values are indexed as exact, lowercased terms and applied as non-scoring
+ * filters.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobSearchService {
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String TITLE = "title";
+    private static final String SKILLS = "skills";
+    private static final String DESCRIPTION = "description";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3.0f, SKILLS, 2.0f, DESCRIPTION, 1.0f);
+    // Ties on score are broken by job ID so that cursors stay stable
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG, true));
+    private static final int REBUILD_BATCH_SIZE = 500;
+    // Tells index cursors apart from the database cursors of the fallback search
+    private static final String CURSOR_PREFIX = "s.";
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    @Value("${search.index.path:${java.io.tmpdir}/smart-job-portal/job-index}")
+    private String indexPath;
+
+    @Value("${search.highlight.max-length:10000}")
+    private int highlightMaxLength;
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    private final Object indexLock = new Object();
+    // Non-null until the first rebuild is done and while one runs
+    private List<Job> jobsDuringRebuild = new ArrayList<>();
+
+    public record SearchHit(Integer jobId, float score, String highlight) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() throws IOException {
+        if (writer == null) {
+            open();
+        }
+        synchronized (indexLock) {
+            if (jobsDuringRebuild == null) {
+                jobsDuringRebuild = new ArrayList<>();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        writer.deleteAll();
+        int pageNumber = 0;
+        Page<Job> page;
+        do {
+            // Stable order so offset pages neither overlap nor skip rows
+            page = jobRepository.findAll(PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE,
+                    org.springframework.data.domain.Sort.by("id")));
+            for (Job job : page) {
+                writer.updateDocument(idTerm(job), toDocument(job));
+            }
+        } while (page.hasNext());
+        replayJobsDuringRebuild();
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+
+        ready = true;
+        log.info("Job search index rebuilt at {}: {} documents in {} ms",
+                indexPath, writer.getDocStats().numDocs, System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Job job) {
+        if (job.getId() == null) {
+            return;
+        }
+        synchronized (indexLock) {
+            if (jobsDuringRebuild != null) {
+                jobsDuringRebuild.add(job);
+                return;
+            }
+        }
+        try {
+            writer.updateDocument(idTerm(job), toDocument(job));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index job " + job.getId(), e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onJobCreated(JobCreatedEvent event) {
+        // Read back in a fresh persistence context, the creating one is already closed
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        read.setReadOnly(true);
+        try {
+            read.executeWithoutResult(status -> jobRepository.findById(event.jobId()).ifPresent(this::index));
+        } catch (UncheckedIOException e) {
+            // The job is saved either way; the next rebuild indexes it
+            log.warn("Failed to index job {}", event.jobId(), e);
+        }
+    }
+
+    /**
+     * Writes the jobs queued while rebuilding, over any copy the rebuild read
+     * from the database, until none are left and index() may write directly.
+     */
+    private void replayJobsDuringRebuild() throws IOException {
+        while (true) {
+            List<Job> queued;
+            synchronized (indexLock) {
+                if (jobsDuringRebuild.isEmpty()) {
+                    jobsDuringRebuild = null;
+                    return;
+                }
+                queued = jobsDuringRebuild;
+                jobsDuringRebuild = new ArrayList<>();
+            }
+            for (Job job : queued) {
+                writer.updateDocument(idTerm(job), toDocument(job));
+            }
+        }
+    }
+
+    private static Term idTerm(Job job) {
+        return new Term(ID, String.valueOf(job.getId()));
+    }
+
+    /**
+     * Returns up to {@code size} hits ranked by relevance among the jobs matching
+     * the filter, continuing after the position encoded in {@code cursor} when
+     * one is given.
+     */
+    public List<SearchHit> search(String keyword, JobFilter filter, String cursor, int size) {
+        Query query = parse(keyword);
+        Query filtered = filter(query, filter);
+        Object[] position = decodeCursor(cursor);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int maxDoc = searcher.getIndexReader().maxDoc();
+            if (maxDoc == 0) {
+                return List.of();
+            }
+            // Lucene breaks ties on equal sort values by doc number; pointing the cursor at
+            // the last doc keeps the hit it was taken from out of the next page
+            ScoreDoc after = position == null ? null : new FieldDoc(maxDoc - 1, (Float) position[0], position);
+            TopFieldDocs topDocs = searcher.searchAfter(after, filtered, size, RELEVANCE, true);
+
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "... ", true))
+                    .withMaxLength(highlightMaxLength)
+                    .withMaxNoHighlightPassages(1)
+                    .build();
+            String[] fragments = highlighter.highlight(DESCRIPTION, query, topDocs, 2);
+
+            List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                FieldDoc doc = (FieldDoc) topDocs.scoreDocs[i];
+                hits.add(new SearchHit(((Long) doc.fields[1]).intValue(), doc.score, fragments[i]));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Job search failed", e);
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    /**
+     * IDs of every job matching the keyword, unranked, for counting facets over
+     * the whole result set rather than one page of it.
+     */
+    public List<Integer> matchingJobIds(String keyword) {
+        Query query = parse(keyword);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            List<Integer> jobIds = new ArrayList<>();
+            searcher.search(query, new SimpleCollector() {
+                private NumericDocValues ids;
+
+                @Override
+                protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                    ids = context.reader().getNumericDocValues(ID_SORT);
+                }
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    if (ids != null && ids.advanceExact(doc)) {
+                        jobIds.add((int) ids.longValue());
+                    }
+                }
+
+                @Override
+                public ScoreMode scoreMode() {
+                    return ScoreMode.COMPLETE_NO_SCORES;
+                }
+            });
+            return jobIds;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Job search failed", e);
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    public static String encodeCursor(SearchHit hit) {
+        String raw = Integer.toHexString(Float.floatToIntBits(hit.score())) + "|" + hit.jobId();
+        return CURSOR_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a cursor was issued by {@link #search}, as opposed to the database
+     * search used while the index is not ready.
+     */
+    public static boolean isSearchCursor(String token) {
+        return token != null && token.startsWith(CURSOR_PREFIX);
+    }
+
+    private static Object[] decodeCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        if (!isSearchCursor(token)) {
+            throw new InvalidCursorException(token, null);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.substring(CURSOR_PREFIX.length())), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(raw.substring(0, separator), 16));
+            long jobId = Long.parseLong(raw.substring(separator + 1));
+            return new Object[]{score, jobId};
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(token, e);
+        }
+    }
+
+    private Query parse(String keyword) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{TITLE, SKILLS, DESCRIPTION}, analyzer, FIELD_BOOSTS);
+        try {
+            return parser.parse(QueryParser.escape(keyword));
+        } catch (ParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search keyword", e);
+        }
+    }
+
+    // Any of the selected values within a facet, every facet with a selection; filters do not affect scores
+    private static Query filter(Query query, JobFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return query;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(query, Occur.MUST);
+        for (JobFacet facet : JobFacet.values()) {
+            List<String> selected = facet.selectedIn(filter);
+            if (selected.isEmpty()) {
+                continue;
+            }
+            BooleanQuery.Builder anyOf = new BooleanQuery.Builder();
+            for (String value : selected) {
+                anyOf.add(new TermQuery(new Term(facet.getFieldName(), value.trim().toLowerCase(Locale.ROOT))), Occur.SHOULD);
+            }
+            builder.add(anyOf.build(), Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Document toDocument(Job job) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(job.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_SORT, job.getId()));
+        if (job.getTitle() != null) {
+            document.add(new TextField(TITLE, job.getTitle(), Field.Store.NO));
+        }
+        if (job.getSkills() != null) {
+            document.add(new TextField(SKILLS, job.getSkills(), Field.Store.NO));
+        }
+        if (job.getDescription() != null) {
+            // Stored so the highlighter can cut fragments without going back to the database
+            document.add(new TextField(DESCRIPTION, job.getDescription(), Field.Store.YES));
+        }
+        for (JobFacet facet : JobFacet.values()) {
+            String value = facet.valueOf(job);
+            if (value != null) {
+                document.add(new StringField(facet.getFieldName(), value.toLowerCase(Locale.ROOT), Field.Store.NO));
+            }
+        }
+        return document;
+    }
+
+    private void open() throws IOException {
+        Path path = Path.of(indexPath);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setSimilarity(new BM25Similarity());
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release index searcher", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        ready = false;
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+}
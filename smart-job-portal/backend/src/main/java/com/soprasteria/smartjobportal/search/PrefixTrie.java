@@ -0,0 +1,296 @@
+package com.soprasteria.smartjobportal.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie from normalized terms to frequency-ranked completions. Chains of
+ * single-child nodes are collapsed into one edge label, and every node keeps
+ * its best completions so a lookup is a walk down the prefix plus a copy,
+ * independent of how many terms share the prefix.
+ *
+ * Frequencies only grow between rebuilds, which is what keeps the per-node
+ * lists exact under incremental updates. Memory use is estimated as terms are
+ * added, and new terms are refused once the estimate reaches the budget.
+ */
+final class PrefixTrie {
+
+    // Rough per-object costs with compressed oops, enough to keep the estimate honest
+    private static final int NODE_BYTES = 64;
+    private static final int TERM_BYTES = 48;
+    private static final int REFERENCE_BYTES = 4;
+
+    // Most frequent first, then the shortest, then alphabetical
+    static final Comparator<Term> BEST_FIRST = Comparator
+            .comparingLong(Term::getFrequency).reversed()
+            .thenComparingInt(term -> term.getText().length())
+            .thenComparing(Term::getText);
+
+    private final int completions;
+    private final long memoryBudget;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root;
+
+    private int size;
+    private long estimatedBytes;
+
+    PrefixTrie(int completions, long memoryBudget) {
+        this.completions = completions;
+        this.memoryBudget = memoryBudget;
+        this.root = new Node("");
+        this.estimatedBytes = nodeBytes(root);
+    }
+
+    /**
+     * A completion. Instances are owned by the trie and only read outside it.
+     */
+    static final class Term {
+        private final String text;
+        private volatile long frequency;
+
+        private Term(String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        long getFrequency() {
+            return frequency;
+        }
+    }
+
+    private final class Node {
+        private String label;
+        private char[] firstChars = new char[0];
+        private Node[] children = new Node[0];
+        private Term term;
+        private Term[] best = new Term[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(firstChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void putChild(Node child) {
+            char c = child.label.charAt(0);
+            int index = Arrays.binarySearch(firstChars, c);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            int insertAt = -index - 1;
+            char[] chars = new char[firstChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, chars, 0, insertAt);
+            System.arraycopy(children, 0, nodes, 0, insertAt);
+            chars[insertAt] = c;
+            nodes[insertAt] = child;
+            System.arraycopy(firstChars, insertAt, chars, insertAt + 1, firstChars.length - insertAt);
+            System.arraycopy(children, insertAt, nodes, insertAt + 1, children.length - insertAt);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        // Moves the term into the node's best completions if it now ranks there
+        private void offer(Term candidate) {
+            int index = -1;
+            for (int i = 0; i < best.length; i++) {
+                if (best[i] == candidate) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                if (best.length < completions) {
+                    best = Arrays.copyOf(best, best.length + 1);
+                    estimatedBytes += REFERENCE_BYTES;
+                } else if (BEST_FIRST.compare(candidate, best[best.length - 1]) >= 0) {
+                    return;
+                }
+                index = best.length - 1;
+                best[index] = candidate;
+            }
+            // The candidate only moved up, so one insertion pass restores the order
+            while (index > 0 && BEST_FIRST.compare(best[index], best[index - 1]) < 0) {
+                Term swap = best[index - 1];
+                best[index - 1] = best[index];
+                best[index] = swap;
+                index--;
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds {@code delta} to the frequency of the term, inserting it with the
+     * given display text if needed. Returns false when the term is new and the
+     * memory budget does not allow adding it.
+     */
+    boolean add(String text, long delta) {
+        return update(text, delta, false);
+    }
+
+    /**
+     * Inserts the term with the given frequency unless it is already present.
+     */
+    boolean addIfAbsent(String text, long frequency) {
+        return update(text, frequency, true);
+    }
+
+    private boolean update(String text, long delta, boolean onlyIfAbsent) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Node existing = find(key, true);
+            if (existing != null && existing.term != null) {
+                if (onlyIfAbsent) {
+                    return true;
+                }
+                return increment(key, delta);
+            }
+            // Worst case for a new term: one split node plus one leaf
+            long cost = TERM_BYTES + 2L * text.length() + 2 * nodeBytes(key.length());
+            if (estimatedBytes + cost > memoryBudget) {
+                return false;
+            }
+            insert(key, text.trim());
+            size++;
+            estimatedBytes += TERM_BYTES + 2L * text.trim().length();
+            return increment(key, delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Walks the path to the term, bumping its frequency and re-ranking it at every node on the way
+    private boolean increment(String key, long delta) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int position = 0;
+        path.add(node);
+        while (position < key.length()) {
+            node = node.child(key.charAt(position));
+            position += node.label.length();
+            path.add(node);
+        }
+        Term term = node.term;
+        term.frequency += delta;
+        for (Node onPath : path) {
+            onPath.offer(term);
+        }
+        return true;
+    }
+
+    private void insert(String key, String text) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                Node leaf = new Node(key.substring(position));
+                estimatedBytes += nodeBytes(leaf) + REFERENCE_BYTES + 2;
+                node.putChild(leaf);
+                node = leaf;
+                position = key.length();
+                break;
+            }
+
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                // Split the edge; everything below the new node is below the old child
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.putChild(child);
+                middle.best = child.best.clone();
+                node.putChild(middle);
+                estimatedBytes += nodeBytes(middle) + (long) REFERENCE_BYTES * middle.best.length;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+        node.term = new Term(text);
+    }
+
+    /**
+     * Up to {@code limit} completions of the prefix, best first.
+     */
+    List<Term> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(key, false);
+            if (node == null) {
+                return List.of();
+            }
+            return List.of(Arrays.copyOf(node.best, Math.min(limit, node.best.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Node for the key. With {@code exact}, only a node ending exactly at the
+     * key; otherwise also the node whose edge the key ends inside of.
+     */
+    private Node find(String key, boolean exact) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length()) {
+                return !exact && position + common == key.length() ? child : null;
+            }
+            node = child;
+            position += common;
+        }
+        return node;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long nodeBytes(Node node) {
+        return nodeBytes(node.label.length());
+    }
+
+    private static long nodeBytes(int labelLength) {
+        return NODE_BYTES + 2L * labelLength;
+    }
+}
@@ -0,0 +1,208 @@
+package com.soprasteria.smartjobportal.search;
+
+import com.soprasteria.smartjobportal.dto.SuggestionDTO.Suggestion;
+import com.soprasteria.smartjobportal.dto.SuggestionDTO.Type;
+import com.soprasteria.smartjobportal.event.JobCreatedEvent;
+import com.soprasteria.smartjobportal.event.UserSkillsUpdatedEvent;
+import com.soprasteria.smartjobportal.repository.JobRepository;
+import com.soprasteria.smartjobportal.repository.SkillRepository;
+import com.soprasteria.smartjobportal.repository.SkillRepository.TermFrequency;
+import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.service.SkillService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplete for skills and job titles, ranked by how many jobs and profiles
+ * use each term. Both vocabularies live in in-memory {@link PrefixTrie}s that
+ * are rebuilt from aggregate counts on startup and on a schedule, and updated
+ * incrementally once a job or a user's skills are committed.
+ */
+@Service
+@Slf4j
+public class SuggestionService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 20;
+
+    private final SkillRepository skillRepository;
+    private final JobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final SkillService skillService;
+    private final TransactionTemplate readTemplate;
+    private final long memoryBudget;
+
+    private final Object rebuildLock = new Object();
+    private volatile Tries tries;
+
+    // Updates arriving while a rebuild is reading the database, replayed when it swaps.
+    // A job the rebuild already counted is counted twice until the next rebuild.
+    private List<Update> updatesDuringRebuild;
+
+    public SuggestionService(SkillRepository skillRepository, JobRepository jobRepository,
+                             UserRepository userRepository, SkillService skillService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${suggest.memory-budget-bytes:16777216}") long memoryBudget) {
+        this.skillRepository = skillRepository;
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.skillService = skillService;
+        this.memoryBudget = memoryBudget;
+
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTemplate.setReadOnly(true);
+
+        Gauge.builder("suggest.terms", this, service -> service.tries == null
+                        ? 0 : service.tries.skills.size() + service.tries.titles.size())
+                .description("Terms in the autocomplete index")
+                .register(meterRegistry);
+        Gauge.builder("suggest.memory", this, service -> service.tries == null
+                        ? 0 : service.tries.skills.estimatedBytes() + service.tries.titles.estimatedBytes())
+                .description("Estimated memory used by the autocomplete index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // The budget is split evenly so a flood of titles cannot crowd out skills
+    private record Tries(PrefixTrie skills, PrefixTrie titles) {
+
+        PrefixTrie of(Type type) {
+            return type == Type.SKILL ? skills : titles;
+        }
+    }
+
+    private record Update(Type type, String text, long frequency, boolean onlyIfAbsent) {
+
+        void applyTo(Tries tries) {
+            PrefixTrie trie = tries.of(type);
+            if (onlyIfAbsent) {
+                trie.addIfAbsent(text, frequency);
+            } else {
+                trie.add(text, frequency);
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} completions of the prefix, most frequent first. Without
+     * a type, skills and titles are merged into one ranking.
+     */
+    public List<Suggestion> suggest(String prefix, Type type, Integer limit) {
+        Tries current = tries;
+        if (current == null || prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Type candidate : Type.values()) {
+            if (type == null || type == candidate) {
+                for (PrefixTrie.Term term : current.of(candidate).complete(prefix, size)) {
+                    suggestions.add(new Suggestion(term.getText(), candidate, term.getFrequency()));
+                }
+            }
+        }
+        if (type == null) {
+            suggestions.sort(Comparator.comparingLong(Suggestion::getFrequency).reversed()
+                    .thenComparingInt(suggestion -> suggestion.getText().length()));
+            if (suggestions.size() > size) {
+                suggestions = new ArrayList<>(suggestions.subList(0, size));
+            }
+        }
+        return suggestions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${suggest.refresh-interval-ms:3600000}",
+               initialDelayString = "${suggest.refresh-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                updatesDuringRebuild = new ArrayList<>();
+            }
+
+            long start = System.currentTimeMillis();
+            Map<String, Long> skills = new HashMap<>();
+            List<TermFrequency> titles = readTemplate.execute(status -> {
+                skillRepository.countJobUsages().forEach(usage -> skills.merge(usage.getName(), usage.getFrequency(), Long::sum));
+                skillRepository.countUserUsages().forEach(usage -> skills.merge(usage.getName(), usage.getFrequency(), Long::sum));
+                return jobRepository.countTitles();
+            });
+
+            Tries rebuilt = new Tries(new PrefixTrie(MAX_LIMIT, memoryBudget / 2), new PrefixTrie(MAX_LIMIT, memoryBudget / 2));
+            // Most frequent first, so a tight budget drops the long tail rather than common terms
+            skills.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(skill -> rebuilt.skills.add(skill.getKey(), skill.getValue()));
+            titles.stream()
+                    .sorted(Comparator.comparingLong(TermFrequency::getFrequency).reversed())
+                    .forEach(title -> rebuilt.titles.add(title.getName(), title.getFrequency()));
+
+            synchronized (this) {
+                updatesDuringRebuild.forEach(update -> update.applyTo(rebuilt));
+                updatesDuringRebuild = null;
+                tries = rebuilt;
+            }
+            log.debug("Suggestion index rebuilt: {} skills, {} titles, ~{} KB in {} ms",
+                    rebuilt.skills.size(), rebuilt.titles.size(),
+                    (rebuilt.skills.estimatedBytes() + rebuilt.titles.estimatedBytes()) / 1024,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onJobCreated(JobCreatedEvent event) {
+        readTemplate.executeWithoutResult(status -> jobRepository.findById(event.jobId()).ifPresent(job -> {
+            List<Update> updates = new ArrayList<>();
+            if (job.getTitle() != null) {
+                updates.add(new Update(Type.TITLE, job.getTitle(), 1, false));
+            }
+            skillService.canonicalNames(job.getSkills())
+                    .forEach(skill -> updates.add(new Update(Type.SKILL, skill, 1, false)));
+            apply(updates);
+        }));
+    }
+
+    /**
+     * Only makes a user's new skills suggestable. The previous skills are not
+     * known here, so counts for profiles are corrected by the next rebuild.
+     */
+    @TransactionalEventListener
+    public void onUserSkillsUpdated(UserSkillsUpdatedEvent event) {
+        readTemplate.executeWithoutResult(status -> userRepository.findById(event.userId()).ifPresent(user ->
+                apply(skillService.canonicalNames(user.getSkills()).stream()
+                        .map(skill -> new Update(Type.SKILL, skill, 1, true))
+                        .toList())));
+    }
+
+    private synchronized void apply(List<Update> updates) {
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.addAll(updates);
+        }
+        if (tries != null) {
+            updates.forEach(update -> update.applyTo(tries));
+        }
+    }
+}
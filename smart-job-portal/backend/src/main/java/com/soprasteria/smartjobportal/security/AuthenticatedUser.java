@@ -0,0 +1,113 @@
+package com.soprasteria.smartjobportal.security;
+
+import com.soprasteria.smartjobportal.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Principal of an authenticated request. Carries the user's ID and role so
+ * that authorization and most reads need no user lookup; services load the
+ * full {@link User} row only when they actually use it.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Integer id;
+    private final String username;
+    private final User.Role role;
+    // Only known when the principal was loaded from the user row
+    private final String email;
+    // Only set while a login is being checked, erased once it succeeds
+    private String password;
+
+    public AuthenticatedUser(Integer id, String username, User.Role role) {
+        this(id, username, role, null, null);
+    }
+
+    private AuthenticatedUser(Integer id, String username, User.Role role, String email, String password) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.email = email;
+        this.password = password;
+    }
+
+    public static AuthenticatedUser withPassword(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), user.getEmail(), user.getPassword());
+    }
+
+    /**
+     * Principal of the current request, or empty when it is anonymous.
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+}
@@ -0,0 +1,73 @@
+package com.soprasteria.smartjobportal.security;
+
+import com.soprasteria.smartjobportal.model.User;
+import com.soprasteria.smartjobportal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * The authenticated user of the current request, shared by all services.
+ *
+ * ID and role come straight from the principal. The {@link User} row is only
+ * loaded when a service asks for it, at most once per request, and by primary
+ * key so that a lookup inside a transaction that already holds the user is
+ * served from the persistence context.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUserContext {
+
+    private final UserRepository userRepository;
+
+    private User user;
+
+    /**
+     * Principal of the request, or empty when it is anonymous.
+     */
+    public Optional<AuthenticatedUser> principal() {
+        return AuthenticatedUser.current();
+    }
+
+    /**
+     * ID of the authenticated user, or null when the request is anonymous.
+     */
+    public Integer getId() {
+        return principal().map(AuthenticatedUser::getId).orElse(null);
+    }
+
+    /**
+     * The authenticated user, loaded on first use.
+     */
+    public User getUser() {
+        if (user == null) {
+            user = load();
+        }
+        return user;
+    }
+
+    private User load() {
+        Optional<AuthenticatedUser> principal = principal();
+        if (principal.isPresent() && principal.get().getId() != null) {
+            Integer id = principal.get().getId();
+            return userRepository.findById(id)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            throw new AuthenticationCredentialsNotFoundException("User not authenticated");
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    }
+}
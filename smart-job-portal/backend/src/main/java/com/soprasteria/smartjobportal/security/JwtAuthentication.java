@@ -0,0 +1,27 @@
+package com.soprasteria.smartjobportal.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Authentication built from a verified token; the token itself is not kept.
+ */
+public class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private final AuthenticatedUser principal;
+
+    public JwtAuthentication(AuthenticatedUser principal) {
+        super(principal.getAuthorities());
+        this.principal = principal;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+}
@@ -1,9 +1,14 @@
 package com.soprasteria.smartjobportal.security;
 
+import com.soprasteria.smartjobportal.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -12,16 +17,52 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once, and
+ * the principals of recently verified tokens are cached so a client sending
+ * the same token again skips signature verification and claim decoding.
+ */
 @Service
 public class JwtTokenProvider {
 
-    @Value("${application.security.jwt.secret-key:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String secretKey;
-    
-    @Value("${application.security.jwt.expiration:86400000}")
-    private long jwtExpiration;
+    // Claims that let requests be authorized from the token alone
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final VerifiedTokenCache verifiedTokens;
+    private final Timer cacheHits;
+    private final Timer cacheMisses;
+
+    public JwtTokenProvider(
+            @Value("${application.security.jwt.secret-key:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String secretKey,
+            @Value("${application.security.jwt.expiration:86400000}") long jwtExpiration,
+            @Value("${application.security.jwt.cache.max-size:10000}") int cacheMaxSize,
+            @Value("${application.security.jwt.cache.ttl-ms:300000}") long cacheTtlMillis,
+            MeterRegistry meterRegistry) {
+        this.signInKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxSize, cacheTtlMillis);
+        // Hit rate is the ratio of the two timer counts
+        this.cacheHits = verifyTimer("hit", meterRegistry);
+        this.cacheMisses = verifyTimer("miss", meterRegistry);
+        Gauge.builder("jwt.cache.size", verifiedTokens, VerifiedTokenCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    private static Timer verifyTimer(String cache, MeterRegistry meterRegistry) {
+        return Timer.builder("jwt.verify")
+                .description("Token verification, from the cache or by checking the signature")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -33,7 +74,12 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof AuthenticatedUser user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
@@ -54,34 +100,50 @@ public class JwtTokenProvider {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    /**
+     * Verifies the token and returns its principal. ID and role are null for
+     * tokens issued before they were added as claims. Invalid and expired
+     * tokens throw, and are never cached.
+     */
+    public AuthenticatedUser extractPrincipal(String token) {
+        if (verifiedTokens.isEnabled()) {
+            long start = System.nanoTime();
+            AuthenticatedUser cached = verifiedTokens.get(token);
+            if (cached != null) {
+                cacheHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+        return cacheMisses.record(() -> verify(token));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        // Expired tokens are rejected by the parser and never cached
+        return extractPrincipal(token).getUsername().equals(userDetails.getUsername());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private AuthenticatedUser verify(String token) {
+        Claims claims = extractAllClaims(token);
+        AuthenticatedUser principal = toPrincipal(claims);
+        if (verifiedTokens.isEnabled()) {
+            verifiedTokens.put(token, principal, claims.getExpiration().getTime());
+        }
+        return principal;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static AuthenticatedUser toPrincipal(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new AuthenticatedUser(
+                claims.get(USER_ID_CLAIM, Integer.class),
+                claims.getSubject(),
+                role != null ? User.Role.valueOf(role) : null);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
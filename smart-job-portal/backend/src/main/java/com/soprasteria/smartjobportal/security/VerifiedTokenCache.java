@@ -0,0 +1,78 @@
+package com.soprasteria.smartjobportal.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals of recently verified tokens, keyed by the SHA-256 of the token so
+ * the tokens themselves are not kept. An entry is dropped once the token
+ * expires or the TTL passes, whichever comes first. When the cache is full,
+ * expired entries are purged and, if that frees nothing, it starts over.
+ */
+final class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private record Entry(AuthenticatedUser principal, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0 && ttlMillis > 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    AuthenticatedUser get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    void put(String token, AuthenticatedUser principal, long tokenExpiresAt) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiresAt, now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(hash(token), new Entry(principal, expiresAt));
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
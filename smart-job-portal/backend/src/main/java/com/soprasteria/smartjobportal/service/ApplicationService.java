@@ -3,23 +3,20 @@ package com.soprasteria.smartjobportal.service;
 import com.soprasteria.smartjobportal.dto.ApplicationDTO.ApplicationRequest;
 import com.soprasteria.smartjobportal.dto.ApplicationDTO.ApplicationResponse;
 import com.soprasteria.smartjobportal.dto.ApplicationDTO.StatusUpdateRequest;
+import com.soprasteria.smartjobportal.matching.SkillMatcher;
 import com.soprasteria.smartjobportal.model.Application;
 import com.soprasteria.smartjobportal.model.Job;
 import com.soprasteria.smartjobportal.model.User;
 import com.soprasteria.smartjobportal.repository.ApplicationRepository;
 import com.soprasteria.smartjobportal.repository.JobRepository;
-import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.security.CurrentUserContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,17 +25,18 @@ public class ApplicationService {
 
     private final ApplicationRepository applicationRepository;
     private final JobRepository jobRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
+    private final SkillMatcher skillMatcher;
 
     public ApplicationResponse applyForJob(Integer jobId, ApplicationRequest applicationRequest) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserContext.getUser();
         
         // Only job seekers can apply for jobs
         if (currentUser.getRole() != User.Role.JOBSEEKER) {
             throw new AccessDeniedException("Only job seekers can apply for jobs");
         }
         
-        Job job = jobRepository.findById(jobId)
+        Job job = jobRepository.findWithPosterById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
         
         // Check if user has already applied for this job
@@ -54,7 +52,7 @@ public class ApplicationService {
         // Calculate match percentage if user has skills
         if (currentUser.getSkills() != null && !currentUser.getSkills().isEmpty() && 
             job.getSkills() != null && !job.getSkills().isEmpty()) {
-            BigDecimal matchPercentage = calculateMatchPercentage(currentUser.getSkills(), job.getSkills());
+            BigDecimal matchPercentage = skillMatcher.calculateMatchPercentage(currentUser.getSkills(), job.getSkills());
             application.setMatchPercentage(matchPercentage);
         }
         
@@ -63,7 +61,7 @@ public class ApplicationService {
     }
 
     public List<ApplicationResponse> getMyApplications() {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserContext.getUser();
         List<Application> applications = applicationRepository.findByUser(currentUser);
         
         return applications.stream()
@@ -72,7 +70,7 @@ public class ApplicationService {
     }
 
     public List<ApplicationResponse> getJobApplications(Integer jobId) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserContext.getUser();
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
         
@@ -89,46 +87,11 @@ public class ApplicationService {
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal calculateMatchPercentage(String userSkills, String jobSkills) {
-        if (userSkills == null || jobSkills == null) {
-            return BigDecimal.ZERO;
-        }
-        
-        // Convert skills to lowercase and split by commas
-        Set<String> userSkillSet = Arrays.stream(userSkills.toLowerCase().split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
-        
-        Set<String> jobSkillSet = Arrays.stream(jobSkills.toLowerCase().split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
-        
-        if (userSkillSet.isEmpty() || jobSkillSet.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        // Count matching skills
-        int matchingSkills = 0;
-        for (String userSkill : userSkillSet) {
-            for (String jobSkill : jobSkillSet) {
-                if (jobSkill.contains(userSkill) || userSkill.contains(jobSkill)) {
-                    matchingSkills++;
-                    break;
-                }
-            }
-        }
-        
-        // Calculate percentage
-        double percentage = (double) matchingSkills / jobSkillSet.size() * 100;
-        return BigDecimal.valueOf(percentage).setScale(2, BigDecimal.ROUND_HALF_UP);
-    }
-
+    @Transactional
     public ApplicationResponse updateApplicationStatus(Integer applicationId, StatusUpdateRequest statusUpdateRequest) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserContext.getUser();
         
-        Application application = applicationRepository.findById(applicationId)
+        Application application = applicationRepository.findWithJobById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found with id: " + applicationId));
         
         Job job = application.getJob();
@@ -145,11 +108,4 @@ public class ApplicationService {
         
         return ApplicationResponse.fromEntity(updatedApplication);
     }
-    
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-    }
 }
@@ -5,13 +5,14 @@ import com.soprasteria.smartjobportal.dto.AuthDTO.LoginRequest;
 import com.soprasteria.smartjobportal.dto.AuthDTO.RegisterRequest;
 import com.soprasteria.smartjobportal.model.User;
 import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.security.AuthenticatedUser;
+import com.soprasteria.smartjobportal.security.JwtAuthentication;
 import com.soprasteria.smartjobportal.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,50 +26,24 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
 
     public JwtResponse login(LoginRequest loginRequest) {
-        try {
-            System.out.println("Attempting to authenticate user: " + loginRequest.getUsername());
-            
-            // Check if user exists in database
-            User userCheck = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElse(null);
-            
-            if (userCheck == null) {
-                System.out.println("User not found in database: " + loginRequest.getUsername());
-                throw new RuntimeException("User not found");
-            }
-            
-            System.out.println("User found in database: " + userCheck.getUsername());
-            System.out.println("Stored password hash length: " + userCheck.getPassword().length());
-            
-            // Attempt authentication
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
-            
-            System.out.println("Authentication successful for user: " + loginRequest.getUsername());
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtTokenProvider.generateToken((UserDetails) authentication.getPrincipal());
-            
-            System.out.println("JWT token generated successfully");
-            
-            User user = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            return JwtResponse.builder()
-                    .token(jwt)
-                    .username(user.getUsername())
-                    .email(user.getEmail())
-                    .role(user.getRole().name())
-                    .build();
-        } catch (Exception e) {
-            System.out.println("Login error: " + e.getClass().getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        // The provider loads the user once; its principal has everything the response needs
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                        loginRequest.getUsername(),
+                        loginRequest.getPassword()
+                )
+        );
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        String jwt = jwtTokenProvider.generateToken(principal);
+
+        return JwtResponse.builder()
+                .token(jwt)
+                .username(principal.getUsername())
+                .email(principal.getEmail())
+                .role(principal.getRole().name())
+                .build();
     }
 
     public JwtResponse register(RegisterRequest registerRequest) {
@@ -101,16 +76,10 @@ public class AuthService {
 
         userRepository.save(user);
 
-        // Generate JWT token
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        registerRequest.getUsername(),
-                        registerRequest.getPassword()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtTokenProvider.generateToken((UserDetails) authentication.getPrincipal());
+        // The password was just hashed above, so issue the token without checking it again
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthentication(principal));
+        String jwt = jwtTokenProvider.generateToken(principal);
 
         return JwtResponse.builder()
                 .token(jwt)
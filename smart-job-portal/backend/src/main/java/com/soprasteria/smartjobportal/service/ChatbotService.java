@@ -1,142 +1,276 @@
 package com.soprasteria.smartjobportal.service;
 
-import com.soprasteria.smartjobportal.config.GeminiConfig;
+import com.soprasteria.smartjobportal.chatbot.ChatResponseCache;
+import com.soprasteria.smartjobportal.chatbot.ChatStreamRelay;
+import com.soprasteria.smartjobportal.chatbot.GeminiBusyException;
+import com.soprasteria.smartjobportal.chatbot.GeminiClient;
+import com.soprasteria.smartjobportal.chatbot.GeminiStream;
+import com.soprasteria.smartjobportal.chatbot.InFlightPrompts;
 import com.soprasteria.smartjobportal.dto.ChatbotDTO.ChatRequest;
 import com.soprasteria.smartjobportal.dto.ChatbotDTO.ChatResponse;
-import com.soprasteria.smartjobportal.dto.ChatbotDTO.GeminiRequest;
-import com.soprasteria.smartjobportal.dto.ChatbotDTO.GeminiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatbotService {
 
-    private final RestTemplate restTemplate;
-    private final GeminiConfig geminiConfig;
+    // Bump whenever enhancePrompt changes, so answers to the old prompt are not served from the cache
+    static final int PROMPT_VERSION = 1;
+
+    private static final String NO_ANSWER = "Sorry, I couldn't process your request.";
+
+    private final GeminiClient geminiClient;
+    private final ChatResponseCache responseCache;
+    private final InFlightPrompts inFlightPrompts;
+    private final ResourceLoader resourceLoader;
+    @Qualifier("chatStreamExecutor")
+    private final ThreadPoolTaskExecutor chatStreamExecutor;
+
+    @Value("${chatbot.cache.warmup.location:}")
+    private String warmupLocation;
+
+    @Value("${chatbot.stream.timeout-ms:120000}")
+    private long streamTimeoutMillis;
 
     /**
-     * Process a user's chat message and get a response from Gemini AI
+     * Process a user's chat message and get a response from Gemini AI.
+     * The returned future completes once the model has answered; no thread
+     * is held while waiting for it.
      * @param chatRequest The user's chat request
      * @return A response from the AI
      */
-    public ChatResponse processChat(ChatRequest chatRequest) {
+    public CompletableFuture<ChatResponse> processChat(ChatRequest chatRequest) {
         // Check if API key is configured
-        if (geminiConfig.getApiKey() == null || geminiConfig.getApiKey().isEmpty()) {
+        if (!geminiClient.isConfigured()) {
             log.error("Gemini API key is not configured");
-            return ChatResponse.builder()
+            return CompletableFuture.completedFuture(ChatResponse.builder()
                     .response("The chatbot is currently unavailable. Please contact the administrator to set up the API key.")
-                    .build();
+                    .build());
         }
         
-        try {
-            // Create enhanced prompt
-            String enhancedPrompt = enhancePrompt(chatRequest.getMessage());
-            
-            // Set up headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // Build URL with API key
-            String url = UriComponentsBuilder.fromHttpUrl(geminiConfig.getApiUrl())
-                        .queryParam("key", geminiConfig.getApiKey())
-                        .toUriString();
-            
-            log.debug("Calling API at URL: {}", geminiConfig.getApiUrl());
-            
-            // Create request for Gemini API
-            Map<String, Object> requestMap = new HashMap<>();
-            
-            // Create the contents object for Gemini 1.5 Flash
-            Map<String, Object> contents = new HashMap<>();
-            
-            // Add role for better context (optional for Gemini models)
-            contents.put("role", "user");
-            
-            // Add parts with the message
-            List<Map<String, String>> parts = new ArrayList<>();
-            Map<String, String> part = new HashMap<>();
-            part.put("text", enhancedPrompt);
-            parts.add(part);
-            contents.put("parts", parts);
-            
-            // Add to request as an array with a single content object
-            requestMap.put("contents", List.of(contents));
-            
-            // Add generation config with recommended parameters for Gemini 1.5 Flash
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", 0.7);
-            generationConfig.put("topK", 40);
-            generationConfig.put("topP", 0.95);
-            generationConfig.put("maxOutputTokens", 1024);
-            requestMap.put("generationConfig", generationConfig);
-            
-            // Make API call
-            HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestMap, headers);
-            Map<String, Object> responseMap = restTemplate.postForObject(url, requestEntity, Map.class);
-            
-            // Extract response from Gemini format
-            String responseText = "Sorry, I couldn't process your request.";
-            
-            if (responseMap != null && responseMap.containsKey("candidates")) {
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseMap.get("candidates");
-                if (!candidates.isEmpty() && candidates.get(0).containsKey("content")) {
-                    Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
-                    if (content.containsKey("parts")) {
-                        List<Map<String, Object>> responseParts = (List<Map<String, Object>>) content.get("parts");
-                        if (!responseParts.isEmpty() && responseParts.get(0).containsKey("text")) {
-                            responseText = (String) responseParts.get(0).get("text");
-                        }
+        // Near-identical questions share one answer
+        String cacheKey = ChatResponseCache.key(PROMPT_VERSION, chatRequest.getMessage());
+        if (responseCache.isEnabled()) {
+            String cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(ChatResponse.builder()
+                        .response(cached)
+                        .build());
+            }
+        }
+        
+        // Identical prompts arriving together share one upstream call
+        return inFlightPrompts.join(cacheKey, () -> {
+                    // Create enhanced prompt
+                    String enhancedPrompt = enhancePrompt(chatRequest.getMessage());
+                    return geminiClient.generateContent(buildRequest(enhancedPrompt))
+                            .thenApply(responseMap -> {
+                                String responseText = extractText(responseMap);
+                                // Only real answers are cached, never errors or fallbacks
+                                if (responseText != null && responseCache.isEnabled()) {
+                                    responseCache.put(cacheKey, responseText);
+                                }
+                                return responseText;
+                            });
+                })
+                .thenApply(responseText -> ChatResponse.builder()
+                        .response(responseText != null ? responseText : NO_ANSWER)
+                        .build())
+                .exceptionally(this::errorResponse);
+    }
+
+    /**
+     * Streams the answer to a user's chat message as server-sent events, a
+     * {@code chunk} event per part of the answer as Gemini generates it. A
+     * cached answer, or the message explaining why there is none, is sent as
+     * a single chunk. The complete answer is cached like processChat's.
+     * @param chatRequest The user's chat request
+     * @return The emitter the events are sent on
+     */
+    public SseEmitter streamChat(ChatRequest chatRequest) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        String cacheKey = ChatResponseCache.key(PROMPT_VERSION, chatRequest.getMessage());
+        ChatStreamRelay relay = new ChatStreamRelay(emitter, chatStreamExecutor, this::extractText, this::errorResponse,
+                answer -> {
+                    if (responseCache.isEnabled()) {
+                        responseCache.put(cacheKey, answer);
                     }
+                });
+
+        String immediate = null;
+        if (!geminiClient.isConfigured()) {
+            log.error("Gemini API key is not configured");
+            immediate = "The chatbot is currently unavailable. Please contact the administrator to set up the API key.";
+        } else if (responseCache.isEnabled()) {
+            immediate = responseCache.get(cacheKey);
+        }
+        if (immediate != null) {
+            relay.reply(immediate);
+            return emitter;
+        }
+
+        // Not coalesced: each stream is relayed to its own client as it is generated
+        String enhancedPrompt = enhancePrompt(chatRequest.getMessage());
+        GeminiStream stream = geminiClient.streamGenerateContent(buildRequest(enhancedPrompt), relay);
+        relay.attach(stream);
+        return emitter;
+    }
+
+    /**
+     * Asks the frequent questions listed in {@code chatbot.cache.warmup.location}
+     * once the application is up, so their answers are cached before users
+     * ask them. Questions are sent one at a time to leave the concurrency
+     * limit to real users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        if (warmupLocation.isBlank() || !responseCache.isEnabled() || !geminiClient.isConfigured()) {
+            return;
+        }
+        List<String> questions = readQuestions(resourceLoader.getResource(warmupLocation));
+        CompletableFuture<?> warmup = CompletableFuture.completedFuture(null);
+        for (String question : questions) {
+            warmup = warmup.thenCompose(previous -> processChat(ChatRequest.builder().message(question).build()));
+        }
+        warmup.thenRun(() -> log.info("Chatbot cache pre-warmed with {} questions from {}", questions.size(), warmupLocation));
+    }
+
+    private List<String> readQuestions(Resource resource) {
+        if (!resource.exists()) {
+            log.warn("Chatbot warm-up file {} not found, starting with an empty cache", resource.getDescription());
+            return List.of();
+        }
+        List<String> questions = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.trim().startsWith("#")) {
+                    questions.add(line.trim());
                 }
             }
-            
-            return ChatResponse.builder()
-                    .response(responseText)
-                    .build();
-        } catch (Exception e) {
-            // Log detailed error information
-            log.error("Error processing chat request: {} - {}", e.getClass().getName(), e.getMessage(), e);
-            
-            // Create a more informative error message for debugging
-            String errorDetails = "API Error: " + e.getClass().getSimpleName();
-            if (e.getMessage() != null) {
-                errorDetails += " - " + e.getMessage();
-            }
-            
-            log.info("Error details: {}", errorDetails);
-            
-            // Provide a more helpful message based on the error
-            String userMessage;
-            if (e.getMessage() != null && e.getMessage().contains("NOT_FOUND")) {
-                userMessage = "The chatbot is currently experiencing issues with the AI model. " +
-                              "Please check your API configuration or contact the administrator. " +
-                              "Error details: " + errorDetails;
-            } else if (e.getMessage() != null && e.getMessage().contains("PERMISSION_DENIED")) {
-                userMessage = "The chatbot doesn't have permission to access the AI model. " +
-                              "This might be due to API key restrictions or quota limits. " +
-                              "Please contact the administrator.";
-            } else {
-                userMessage = "Sorry, I encountered an error while processing your request. " + 
-                             "Please try again later. Error details: " + errorDetails;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read chatbot warm-up questions from " + resource.getDescription(), e);
+        }
+        return questions;
+    }
+
+    private Map<String, Object> buildRequest(String prompt) {
+        // Create request for Gemini API
+        Map<String, Object> requestMap = new HashMap<>();
+        
+        // Create the contents object for Gemini 1.5 Flash
+        Map<String, Object> contents = new HashMap<>();
+        
+        // Add role for better context (optional for Gemini models)
+        contents.put("role", "user");
+        
+        // Add parts with the message
+        List<Map<String, String>> parts = new ArrayList<>();
+        Map<String, String> part = new HashMap<>();
+        part.put("text", prompt);
+        parts.add(part);
+        contents.put("parts", parts);
+        
+        // Add to request as an array with a single content object
+        requestMap.put("contents", List.of(contents));
+        
+        // Add generation config with recommended parameters for Gemini 1.5 Flash
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.7);
+        generationConfig.put("topK", 40);
+        generationConfig.put("topP", 0.95);
+        generationConfig.put("maxOutputTokens", 1024);
+        requestMap.put("generationConfig", generationConfig);
+        return requestMap;
+    }
+
+    /**
+     * Text of the first candidate of a Gemini response, or null when the
+     * response has none.
+     */
+    @SuppressWarnings("unchecked")
+    private String extractText(Map<String, Object> responseMap) {
+        // Extract response from Gemini format
+        String responseText = null;
+        
+        if (responseMap != null && responseMap.containsKey("candidates")) {
+            List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseMap.get("candidates");
+            if (!candidates.isEmpty() && candidates.get(0).containsKey("content")) {
+                Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+                if (content.containsKey("parts")) {
+                    List<Map<String, Object>> responseParts = (List<Map<String, Object>>) content.get("parts");
+                    if (!responseParts.isEmpty() && responseParts.get(0).containsKey("text")) {
+                        responseText = (String) responseParts.get(0).get("text");
+                    }
+                }
             }
-            
+        }
+        return responseText;
+    }
+
+    private ChatResponse errorResponse(Throwable failure) {
+        Throwable e = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        
+        if (e instanceof GeminiBusyException) {
             return ChatResponse.builder()
-                    .response(userMessage)
+                    .response("The chatbot is busy right now. Please try again in a moment.")
                     .build();
         }
+        
+        // Log detailed error information
+        log.error("Error processing chat request: {} - {}", e.getClass().getName(), e.getMessage(), e);
+        
+        // Create a more informative error message for debugging
+        String errorDetails = "API Error: " + e.getClass().getSimpleName();
+        if (e.getMessage() != null) {
+            errorDetails += " - " + e.getMessage();
+        }
+        
+        log.info("Error details: {}", errorDetails);
+        
+        // Provide a more helpful message based on the error
+        String userMessage;
+        if (e.getMessage() != null && e.getMessage().contains("NOT_FOUND")) {
+            userMessage = "The chatbot is currently experiencing issues with the AI model. " +
+                          "Please check your API configuration or contact the administrator. " +
+                          "Error details: " + errorDetails;
+        } else if (e.getMessage() != null && e.getMessage().contains("PERMISSION_DENIED")) {
+            userMessage = "The chatbot doesn't have permission to access the AI model. " +
+                          "This might be due to API key restrictions or quota limits. " +
+                          "Please contact the administrator.";
+        } else {
+            userMessage = "Sorry, I encountered an error while processing your request. " + 
+                         "Please try again later. Error details: " + errorDetails;
+        }
+        
+        return ChatResponse.builder()
+                .response(userMessage)
+                .build();
     }
     
     /**
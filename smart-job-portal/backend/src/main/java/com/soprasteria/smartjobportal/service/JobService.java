@@ -1,63 +1,113 @@
 package com.soprasteria.smartjobportal.service;
 
+import com.soprasteria.smartjobportal.catalog.JobCatalog;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobCursor;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobFilter;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobPage;
 import com.soprasteria.smartjobportal.dto.JobDTO.JobRequest;
 import com.soprasteria.smartjobportal.dto.JobDTO.JobResponse;
-import com.soprasteria.smartjobportal.model.Application;
+import com.soprasteria.smartjobportal.dto.JobDTO.JobSummary;
+import com.soprasteria.smartjobportal.event.JobCreatedEvent;
+import com.soprasteria.smartjobportal.matching.SkillMatcher;
 import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.model.JobMatchScore;
 import com.soprasteria.smartjobportal.model.User;
 import com.soprasteria.smartjobportal.repository.ApplicationRepository;
+import com.soprasteria.smartjobportal.repository.JobMatchScoreRepository;
 import com.soprasteria.smartjobportal.repository.JobRepository;
-import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.search.JobSearchService;
+import com.soprasteria.smartjobportal.search.JobSearchService.SearchHit;
+import com.soprasteria.smartjobportal.security.CurrentUserContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class JobService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final JobRepository jobRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
     private final ApplicationRepository applicationRepository;
+    private final JobSearchService jobSearchService;
+    private final SkillMatcher skillMatcher;
+    private final SkillService skillService;
+    private final JobMatchScoreRepository jobMatchScoreRepository;
+    private final MatchScoreService matchScoreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobCatalog jobCatalog;
 
-    public List<JobResponse> getAllJobs() {
-        List<Job> jobs = jobRepository.findAll();
-        User currentUser = getCurrentUserOptional().orElse(null);
+    public JobPage<JobSummary> getAllJobs(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        JobCursor after = JobCursor.decode(cursor);
+        Integer currentUserId = currentUserContext.getId();
         
-        return jobs.stream()
-                .map(job -> {
-                    JobResponse response = JobResponse.fromEntity(job);
-                    if (currentUser != null) {
-                        response.setApplied(applicationRepository.existsByJobAndUser(job, currentUser));
-                    }
-                    return response;
-                })
-                .collect(Collectors.toList());
+        JobPage<JobSummary> page;
+        if (jobCatalog.isReady()) {
+            page = jobCatalog.page(null, after, pageSize);
+        } else {
+            // Catalog is still loading at startup, read from the database
+            Pageable window = PageRequest.of(0, pageSize + 1);
+            List<JobSummary> jobs = after == null
+                    ? jobRepository.findSummaries(window)
+                    : jobRepository.findSummariesAfter(after.getPostedDate(), after.getId(), window);
+            page = toPage(jobs, pageSize);
+        }
+        markApplied(page.getContent(), currentUserId);
+        return page;
     }
 
     public JobResponse getJobById(Integer id) {
-        Job job = jobRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Job not found with id: " + id));
-        
-        JobResponse response = JobResponse.fromEntity(job);
+        Optional<JobResponse> cached = jobCatalog.isReady() ? jobCatalog.get(id) : Optional.empty();
+        JobResponse response = cached.orElseGet(() -> jobRepository.findWithPosterById(id)
+                .map(JobResponse::fromEntity)
+                .orElseThrow(() -> new RuntimeException("Job not found with id: " + id)));
         
-        User currentUser = getCurrentUserOptional().orElse(null);
-        if (currentUser != null) {
-            response.setApplied(applicationRepository.existsByJobAndUser(job, currentUser));
+        Integer currentUserId = currentUserContext.getId();
+        if (currentUserId != null) {
+            response.setApplied(!applicationRepository.findAppliedJobIds(currentUserId, List.of(id)).isEmpty());
         }
         
         return response;
     }
 
+    /**
+     * Version of the public job catalog, or null while it is still loading.
+     * Changes whenever a job is created or modified.
+     */
+    public Long getCatalogVersion() {
+        return jobCatalog.isReady() ? jobCatalog.version() : null;
+    }
+
+    /**
+     * Version of a single job in the public catalog, or null when it is not
+     * served from the catalog.
+     */
+    public Long getJobVersion(Integer id) {
+        if (!jobCatalog.isReady()) {
+            return null;
+        }
+        OptionalLong version = jobCatalog.version(id);
+        return version.isPresent() ? version.getAsLong() : null;
+    }
+
+    @Transactional
     public JobResponse createJob(JobRequest jobRequest) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserContext.getUser();
         
         // Only recruiters can create jobs
         if (currentUser.getRole() != User.Role.RECRUITER && currentUser.getRole() != User.Role.ADMIN) {
@@ -68,6 +118,7 @@ public class JobService {
         job.setTitle(jobRequest.getTitle());
         job.setDescription(jobRequest.getDescription());
         job.setSkills(jobRequest.getSkills());
+        job.setSkillSet(skillService.resolve(jobRequest.getSkills()));
         job.setCompany(jobRequest.getCompany() != null ? jobRequest.getCompany() : currentUser.getCompany());
         job.setLocation(jobRequest.getLocation());
         job.setSalary(jobRequest.getSalary());
@@ -95,208 +146,192 @@ public class JobService {
         job.setPostedBy(currentUser);
         
         Job savedJob = jobRepository.save(job);
+        eventPublisher.publishEvent(new JobCreatedEvent(savedJob.getId()));
         return JobResponse.fromEntity(savedJob);
     }
 
-    public List<JobResponse> searchJobs(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return getAllJobs();
+    /**
+     * Searches jobs by keyword and facet filter. The page carries facet counts
+     * over the whole result set whenever the catalog is loaded.
+     */
+    public JobPage<JobSummary> searchJobs(String keyword, JobFilter filter, String cursor, Integer limit) {
+        boolean filtered = filter != null && !filter.isEmpty();
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        if (filtered && (!jobCatalog.isReady() || (hasKeyword && !jobSearchService.isReady()))) {
+            // Filters are only evaluated in memory and in the index, both still loading
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Job filters are not available yet");
         }
         
-        List<Job> jobs = jobRepository.searchJobs(keyword.trim());
-        User currentUser = getCurrentUserOptional().orElse(null);
-        
-        return jobs.stream()
-                .map(job -> {
-                    JobResponse response = JobResponse.fromEntity(job);
-                    if (currentUser != null) {
-                        response.setApplied(applicationRepository.existsByJobAndUser(job, currentUser));
-                    }
-                    return response;
-                })
-                .collect(Collectors.toList());
-    }
-
-    public List<JobResponse> getMatchingJobs() {
-        try {
-            System.out.println("Starting getMatchingJobs method");
-            
-            // Get current user
-            User currentUser = null;
-            try {
-                currentUser = getCurrentUser();
-                System.out.println("Current user retrieved: " + currentUser.getUsername());
-            } catch (Exception e) {
-                System.err.println("Error getting current user: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
-            }
-            
-            // Get user skills
-            String userSkills = null;
-            try {
-                userSkills = currentUser.getSkills();
-                System.out.println("User skills: " + (userSkills != null ? userSkills : "null"));
-            } catch (Exception e) {
-                System.err.println("Error getting user skills: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
-            }
-            
-            if (userSkills == null || userSkills.trim().isEmpty()) {
-                System.out.println("No user skills found, returning empty list");
-                return Collections.emptyList();
+        if (!hasKeyword) {
+            JobPage<JobSummary> page;
+            if (filtered) {
+                page = jobCatalog.page(filter, JobCursor.decode(cursor), resolvePageSize(limit));
+                markApplied(page.getContent(), currentUserContext.getId());
+            } else {
+                page = getAllJobs(cursor, limit);
             }
-            
-            // Get all jobs
-            List<Job> allJobs = null;
-            try {
-                allJobs = jobRepository.findAll();
-                System.out.println("Retrieved " + allJobs.size() + " jobs");
-            } catch (Exception e) {
-                System.err.println("Error retrieving jobs: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
-            }
-            
-            List<JobResponse> matchingJobs = new ArrayList<>();
-            
-            // Simple matching algorithm based on skill overlap
-            for (Job job : allJobs) {
-                try {
-                    if (job.getSkills() != null && !job.getSkills().isEmpty()) {
-                        System.out.println("Processing job ID: " + job.getId() + ", skills: " + job.getSkills());
-                        BigDecimal matchPercentage = calculateMatchPercentage(userSkills, job.getSkills());
-                        System.out.println("Match percentage: " + matchPercentage);
-                        
-                        if (matchPercentage.compareTo(BigDecimal.ZERO) > 0) {
-                            JobResponse response = JobResponse.fromEntity(job);
-                            response.setMatchPercentage(matchPercentage);
-                            
-                            boolean applied = false;
-                            try {
-                                applied = applicationRepository.existsByJobAndUser(job, currentUser);
-                                System.out.println("User has applied: " + applied);
-                            } catch (Exception e) {
-                                System.err.println("Error checking if user applied: " + e.getMessage());
-                                e.printStackTrace();
-                            }
-                            
-                            response.setApplied(applied);
-                            matchingJobs.add(response);
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing job ID " + job.getId() + ": " + e.getMessage());
-                    e.printStackTrace();
-                    // Continue processing other jobs
-                }
+            if (jobCatalog.isReady()) {
+                page.setFacets(jobCatalog.facetCounts(null, filter));
             }
+            return page;
+        }
+        
+        int pageSize = resolvePageSize(limit);
+        Integer currentUserId = currentUserContext.getId();
+        
+        if (!jobSearchService.isReady()) {
+            // Index is still being built at startup, fall back to the database; a
+            // cursor from the index cannot continue this search, so it starts over
+            JobCursor after = JobSearchService.isSearchCursor(cursor) ? null : JobCursor.decode(cursor);
+            Pageable window = PageRequest.of(0, pageSize + 1);
+            List<JobSummary> jobs = after == null
+                    ? jobRepository.searchJobs(keyword.trim(), window)
+                    : jobRepository.searchJobsAfter(keyword.trim(), after.getPostedDate(), after.getId(), window);
             
-            // Sort by match percentage (descending)
-            matchingJobs.sort((j1, j2) -> j2.getMatchPercentage().compareTo(j1.getMatchPercentage()));
-            
-            System.out.println("Returning " + matchingJobs.size() + " matching jobs");
-            return matchingJobs;
-        } catch (Exception e) {
-            System.err.println("Unhandled exception in getMatchingJobs: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
+            JobPage<JobSummary> page = toPage(jobs, pageSize);
+            markApplied(page.getContent(), currentUserId);
+            return page;
         }
-    }
-
-    private BigDecimal calculateMatchPercentage(String userSkills, String jobSkills) {
-        if (userSkills == null || jobSkills == null) {
-            return BigDecimal.ZERO;
+        
+        if (cursor != null && !cursor.isBlank() && !JobSearchService.isSearchCursor(cursor)) {
+            // Issued by the database fallback before the index was ready: start over
+            JobCursor.decode(cursor);
+            cursor = null;
         }
+        List<SearchHit> hits = jobSearchService.search(keyword.trim(), filter, cursor, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+        
+        // Hydrate only the ranked hits; the highlight stands in for the description
+        Map<Integer, JobSummary> jobsById = findSummaries(hits.stream().map(SearchHit::jobId).collect(Collectors.toList()));
         
-        // Convert skills to lowercase and split by commas
-        Set<String> userSkillSet = Arrays.stream(userSkills.toLowerCase().split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
+        List<JobSummary> content = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            JobSummary summary = jobsById.get(hit.jobId());
+            if (summary != null) {
+                summary.setScore(hit.score());
+                summary.setHighlight(hit.highlight());
+                content.add(summary);
+            }
+        }
+        markApplied(content, currentUserId);
         
-        Set<String> jobSkillSet = Arrays.stream(jobSkills.toLowerCase().split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
+        return JobPage.<JobSummary>builder()
+                .content(content)
+                .nextCursor(hasMore ? JobSearchService.encodeCursor(hits.get(hits.size() - 1)) : null)
+                .hasMore(hasMore)
+                .size(content.size())
+                .facets(jobCatalog.isReady()
+                        ? jobCatalog.facetCounts(jobSearchService.matchingJobIds(keyword.trim()), filter)
+                        : null)
+                .build();
+    }
+
+    /**
+     * The current job seeker's best matching jobs, at most {@code limit} of them
+     * (20 by default, 100 at most), best first.
+     */
+    public List<JobSummary> getMatchingJobs(Integer limit, BigDecimal minScore) {
+        Integer currentUserId = currentUserContext.getId();
+        int pageSize = resolvePageSize(limit);
+        double min = minScore != null ? minScore.doubleValue() : 0;
         
-        if (userSkillSet.isEmpty() || jobSkillSet.isEmpty()) {
-            return BigDecimal.ZERO;
+        List<JobMatchScore> best;
+        // Checked first: a recompute replaces the rows in one transaction, so
+        // once they exist a later read sees either the old or the new scores
+        if (jobMatchScoreRepository.existsByUserId(currentUserId)) {
+            // Scores are materialized by MatchScoreService; this is a single indexed range read
+            best = jobMatchScoreRepository.findByUserIdAndScoreGreaterThanEqualOrderByScoreDescJobIdDesc(
+                    currentUserId, min, PageRequest.of(0, pageSize));
+        } else {
+            // Not materialized yet, e.g. just after the skills changed: score on the fly
+            best = matchScoreService.scoreJobs(currentUserId, pageSize, min).stream()
+                    .map(match -> new JobMatchScore(currentUserId, match.jobId(), match.score()))
+                    .collect(Collectors.toList());
+        }
+        if (best.isEmpty()) {
+            return Collections.emptyList();
         }
         
-        // Count matching skills
-        int matchingSkills = 0;
-        for (String userSkill : userSkillSet) {
-            for (String jobSkill : jobSkillSet) {
-                if (jobSkill.contains(userSkill) || userSkill.contains(jobSkill)) {
-                    matchingSkills++;
-                    break;
-                }
+        Map<Integer, JobSummary> jobsById = findSummaries(best.stream().map(JobMatchScore::getJobId).collect(Collectors.toList()));
+        
+        List<JobSummary> matchingJobs = new ArrayList<>(best.size());
+        for (JobMatchScore scored : best) {
+            JobSummary summary = jobsById.get(scored.getJobId());
+            if (summary != null) {
+                summary.setMatchPercentage(SkillMatcher.toPercentage(scored.getScore()));
+                matchingJobs.add(summary);
             }
         }
-        
-        // Calculate percentage
-        double percentage = (double) matchingSkills / jobSkillSet.size() * 100;
-        return BigDecimal.valueOf(percentage).setScale(2, BigDecimal.ROUND_HALF_UP);
+        markApplied(matchingJobs, currentUserId);
+        return matchingJobs;
     }
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    private Map<Integer, JobSummary> findSummaries(List<Integer> jobIds) {
+        return jobRepository.findSummariesByIdIn(jobIds).stream()
+                .collect(Collectors.toMap(JobSummary::getId, Function.identity()));
     }
-    
-    private Optional<User> getCurrentUserOptional() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || authentication.getName() == null) {
-                return Optional.empty();
-            }
-            String username = authentication.getName();
-            return userRepository.findByUsername(username);
-        } catch (Exception e) {
-            return Optional.empty();
+
+    /**
+     * Sets the applied flag on every response using one lookup of the user's
+     * applications among those jobs, instead of one query per job.
+     */
+    private void markApplied(List<JobSummary> responses, Integer currentUserId) {
+        if (currentUserId == null || responses.isEmpty()) {
+            return;
         }
+        
+        List<Integer> jobIds = responses.stream()
+                .map(JobSummary::getId)
+                .collect(Collectors.toList());
+        Set<Integer> appliedJobIds = new HashSet<>(applicationRepository.findAppliedJobIds(currentUserId, jobIds));
+        
+        responses.forEach(response -> response.setApplied(appliedJobIds.contains(response.getId())));
     }
-    
-    public List<JobResponse> getJobsPostedByCurrentUser() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null) {
-                System.err.println("Authentication is null in getJobsPostedByCurrentUser");
-                throw new RuntimeException("User not authenticated");
-            }
-            
-            String username = authentication.getName();
-            if (username == null || username.isEmpty() || username.equals("anonymousUser")) {
-                System.err.println("Invalid username in getJobsPostedByCurrentUser: " + username);
-                throw new RuntimeException("Invalid username");
-            }
-            
-            User currentUser = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        System.err.println("User not found with username: " + username);
-                        return new UsernameNotFoundException("User not found with username: " + username);
-                    });
-            
-            System.out.println("Found user: " + currentUser.getUsername() + " with role: " + currentUser.getRole());
-            
-            List<Job> jobs = jobRepository.findByPostedBy(currentUser);
-            System.out.println("Found " + jobs.size() + " jobs posted by user: " + currentUser.getUsername());
-            
-            return jobs.stream()
-                    .map(job -> {
-                        JobResponse response = JobResponse.fromEntity(job);
-                        response.setApplied(false); // Not applicable for recruiters viewing their own jobs
-                        return response;
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            System.err.println("Error in getJobsPostedByCurrentUser: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to retrieve jobs: " + e.getMessage(), e);
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
         }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Builds a page from a window fetched with one extra row; the extra row only
+     * signals that another page exists and is never returned.
+     */
+    private JobPage<JobSummary> toPage(List<JobSummary> window, int pageSize) {
+        boolean hasMore = window.size() > pageSize;
+        List<JobSummary> content = hasMore ? new ArrayList<>(window.subList(0, pageSize)) : window;
+        
+        return JobPage.<JobSummary>builder()
+                .content(content)
+                .nextCursor(hasMore ? content.get(content.size() - 1).getPosition().encode() : null)
+                .hasMore(hasMore)
+                .size(content.size())
+                .build();
+    }
+
+    public JobPage<JobSummary> getJobsPostedByCurrentUser(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        JobCursor after = JobCursor.decode(cursor);
+        User currentUser = currentUserContext.getUser();
+
+        JobPage<JobSummary> page;
+        if (jobCatalog.isReady()) {
+            page = jobCatalog.pageByPoster(currentUser.getId(), after, pageSize);
+        } else {
+            Pageable window = PageRequest.of(0, pageSize + 1);
+            List<JobSummary> jobs = after == null
+                    ? jobRepository.findSummariesByPostedBy(currentUser, window)
+                    : jobRepository.findSummariesByPostedByAfter(currentUser, after.getPostedDate(), after.getId(), window);
+            page = toPage(jobs, pageSize);
+        }
+
+        // Not applicable for recruiters viewing their own jobs
+        page.getContent().forEach(response -> response.setApplied(false));
+        return page;
     }
 }
@@ -0,0 +1,230 @@
+package com.soprasteria.smartjobportal.service;
+
+import com.soprasteria.smartjobportal.event.JobCreatedEvent;
+import com.soprasteria.smartjobportal.event.UserSkillsUpdatedEvent;
+import com.soprasteria.smartjobportal.matching.RecommendationEngine;
+import com.soprasteria.smartjobportal.matching.RecommendationEngine.Candidate;
+import com.soprasteria.smartjobportal.matching.RecommendationEngine.ScoredJob;
+import com.soprasteria.smartjobportal.matching.SkillMatcher;
+import com.soprasteria.smartjobportal.matching.SkillMatcher.SkillProfile;
+import com.soprasteria.smartjobportal.model.JobMatchScore;
+import com.soprasteria.smartjobportal.model.User;
+import com.soprasteria.smartjobportal.repository.JobMatchScoreRepository;
+import com.soprasteria.smartjobportal.repository.JobRepository;
+import com.soprasteria.smartjobportal.repository.JobRepository.JobSkills;
+import com.soprasteria.smartjobportal.repository.JobRepository.SkillOverlap;
+import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.repository.UserRepository.UserSkills;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps job_match_scores in sync with job and user skills. Scores change only
+ * when a job is created or a user's skills change, so both write paths trigger
+ * an incremental recomputation after commit and the matching endpoint becomes
+ * a single indexed range read.
+ *
+ * Changed users and jobs are marked dirty and recomputed by a single drain
+ * task on the score executor, so recomputations never interleave and a burst
+ * of changes to the same user or job collapses into one recomputation. At
+ * most one drain task is queued at a time; if it cannot be submitted the
+ * marks are kept and the next change submits it again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchScoreService {
+
+    private final JobMatchScoreRepository jobMatchScoreRepository;
+    private final JobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final SkillMatcher skillMatcher;
+    private final RecommendationEngine recommendationEngine;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier("matchScoreExecutor")
+    private final ThreadPoolTaskExecutor matchScoreExecutor;
+
+    private final Set<Integer> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> dirtyJobs = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // Set once after changing how skills match, e.g. new synonyms, to rescore everyone
+    @Value("${matching.scores.recompute-on-startup:false}")
+    private boolean recomputeOnStartup;
+
+    @TransactionalEventListener
+    public void onUserSkillsUpdated(UserSkillsUpdatedEvent event) {
+        dirtyUsers.add(event.userId());
+        scheduleDrain();
+    }
+
+    @TransactionalEventListener
+    public void onJobCreated(JobCreatedEvent event) {
+        dirtyJobs.add(event.jobId());
+        scheduleDrain();
+    }
+
+    /**
+     * Scores every job seeker that has skills but no materialized scores yet, for
+     * example after the table is first introduced, or every job seeker when a
+     * full recompute is requested. Ordered after the skill backfill, and drained
+     * on the score executor so startup does not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void backfill() {
+        List<Integer> userIds = recomputeOnStartup
+                ? userRepository.findIdsWithSkills(User.Role.JOBSEEKER)
+                : userRepository.findIdsWithoutMatchScores(User.Role.JOBSEEKER);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        log.info("Computing match scores for {} job seekers", userIds.size());
+        dirtyUsers.addAll(userIds);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            matchScoreExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            // Only when shutting down; the marks stay for the next change
+            drainScheduled.set(false);
+            log.warn("Match score recomputation not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            boolean more = true;
+            while (more) {
+                Integer userId = poll(dirtyUsers);
+                if (userId != null) {
+                    recompute(transactionTemplate, () -> recomputeForUser(userId), "user", userId);
+                }
+                Integer jobId = poll(dirtyJobs);
+                if (jobId != null) {
+                    recompute(transactionTemplate, () -> recomputeForJob(jobId), "job", jobId);
+                }
+                more = userId != null || jobId != null;
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+        // Marked after the last poll but before the flag was cleared
+        if (!dirtyUsers.isEmpty() || !dirtyJobs.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    // Unmarked before recomputing, so a change made meanwhile marks it again
+    private static Integer poll(Set<Integer> dirty) {
+        Iterator<Integer> it = dirty.iterator();
+        while (it.hasNext()) {
+            Integer id = it.next();
+            if (dirty.remove(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private void recompute(TransactionTemplate transactionTemplate, Runnable recomputation, String kind, Integer id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> recomputation.run());
+        } catch (RuntimeException e) {
+            log.error("Failed to recompute match scores for {} {}", kind, id, e);
+        }
+    }
+
+    @Transactional
+    public void recomputeForUser(Integer userId) {
+        jobMatchScoreRepository.deleteByUserId(userId);
+
+        List<ScoredJob> scored = scoreJobs(userId, Integer.MAX_VALUE, 0);
+        jobMatchScoreRepository.saveAll(scored.stream()
+                .map(match -> new JobMatchScore(userId, match.jobId(), match.score()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Scores the jobs sharing a skill with a job seeker without storing them,
+     * best first. Used to fill job_match_scores and to answer for a user whose
+     * scores have not been materialized yet.
+     */
+    @Transactional(readOnly = true)
+    public List<ScoredJob> scoreJobs(Integer userId, int limit, double minScore) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || user.getRole() != User.Role.JOBSEEKER) {
+            return List.of();
+        }
+        SkillProfile userSkills = skillMatcher.profile(user.getSkills());
+        if (userSkills.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> candidateIds = jobRepository.findSkillOverlaps(userId).stream()
+                .map(SkillOverlap::getJobId)
+                .collect(Collectors.toList());
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        List<Candidate> candidates = new ArrayList<>(candidateIds.size());
+        for (JobSkills job : jobRepository.findSkillsByIdIn(candidateIds)) {
+            candidates.add(new Candidate(job.getId(), job.getSkills()));
+        }
+
+        return recommendationEngine.topK(userSkills, candidates, Math.min(limit, candidates.size()), minScore);
+    }
+
+    @Transactional
+    public void recomputeForJob(Integer jobId) {
+        jobMatchScoreRepository.deleteByJobId(jobId);
+
+        JobSkills job = jobRepository.findSkillsByIdIn(List.of(jobId)).stream().findFirst().orElse(null);
+        if (job == null) {
+            return;
+        }
+        SkillProfile jobSkills = skillMatcher.profile(job.getSkills());
+        if (jobSkills.isEmpty()) {
+            return;
+        }
+
+        List<Integer> seekerIds = userRepository.findSeekerIdsSharingSkills(jobId);
+        if (seekerIds.isEmpty()) {
+            return;
+        }
+        List<JobMatchScore> scores = new ArrayList<>();
+        for (UserSkills user : userRepository.findSkillsByIdIn(seekerIds)) {
+            double score = skillMatcher.score(skillMatcher.profile(user.getSkills()), jobSkills);
+            if (score > 0) {
+                scores.add(new JobMatchScore(user.getId(), jobId, score));
+            }
+        }
+        jobMatchScoreRepository.saveAll(scores);
+    }
+}
@@ -0,0 +1,195 @@
+package com.soprasteria.smartjobportal.service;
+
+import com.soprasteria.smartjobportal.matching.SkillNormalizer;
+import com.soprasteria.smartjobportal.model.Job;
+import com.soprasteria.smartjobportal.model.Skill;
+import com.soprasteria.smartjobportal.model.User;
+import com.soprasteria.smartjobportal.repository.JobRepository;
+import com.soprasteria.smartjobportal.repository.SkillRepository;
+import com.soprasteria.smartjobportal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the canonical skill dictionary and the job_skills / user_skills
+ * join tables derived from the free-text skills columns. Skills are resolved
+ * through {@link SkillNormalizer} on write, so the join tables only ever hold
+ * canonical skills and matching can compare skill IDs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkillService {
+
+    private static final int BACKFILL_BATCH_SIZE = 200;
+
+    private final SkillRepository skillRepository;
+    private final JobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SkillNormalizer skillNormalizer;
+
+    /**
+     * Resolves a comma-separated skill list to the dictionary entries of the
+     * canonical skills, adding any that are not in the dictionary yet.
+     */
+    public Set<Skill> resolve(String skills) {
+        return entries(canonicalNames(skills));
+    }
+
+    private Set<Skill> entries(Set<String> names) {
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Skill> entries = new HashSet<>(skillRepository.findByNameIn(names));
+        Set<String> known = entries.stream().map(Skill::getName).collect(Collectors.toSet());
+        for (String name : names) {
+            if (!known.contains(name)) {
+                entries.add(create(name));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Distinct canonical names of a comma-separated skill list, in input order,
+     * cut to the length of a dictionary entry.
+     */
+    public Set<String> canonicalNames(String skills) {
+        return parseNames(skills).stream()
+                .map(skillNormalizer::canonicalize)
+                .map(SkillService::truncate)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public static Set<String> parseNames(String skills) {
+        if (skills == null || skills.isBlank()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(skills.toLowerCase(Locale.ROOT).split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // Counted in code points, like the column, without splitting a surrogate pair
+    private static String truncate(String name) {
+        if (name.codePointCount(0, name.length()) <= Skill.MAX_NAME_LENGTH) {
+            return name;
+        }
+        return name.substring(0, name.offsetByCodePoints(0, Skill.MAX_NAME_LENGTH)).trim();
+    }
+
+    private Skill create(String name) {
+        // Own transaction so a duplicate insert does not roll back the caller's work
+        TransactionTemplate ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return ownTransaction.execute(status -> skillRepository.saveAndFlush(new Skill(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Another request added the same skill concurrently. Read in a new
+            // transaction too, the caller's snapshot may predate that insert
+            return ownTransaction.execute(status -> skillRepository.findByName(name)).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Populates the join tables for rows written before they existed, and
+     * re-links rows still pointing at skills that are now aliases in the
+     * synonym file. Each batch runs in its own transaction and resumes after
+     * the last processed ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void backfill() {
+        Map<Integer, String> aliases = findAliasSkills();
+        List<Integer> aliasIds = new ArrayList<>(aliases.keySet());
+
+        int jobs = backfillBatches(lastId -> relinkJobs(
+                jobRepository.findWithoutSkillSet(lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE))));
+        int users = backfillBatches(lastId -> relinkUsers(
+                userRepository.findWithoutSkillSet(lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE))));
+        if (!aliasIds.isEmpty()) {
+            jobs += backfillBatches(lastId -> relinkJobAliases(
+                    jobRepository.findWithSkillIn(aliasIds, lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE)), aliases));
+            users += backfillBatches(lastId -> relinkUserAliases(
+                    userRepository.findWithSkillIn(aliasIds, lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE)), aliases));
+        }
+        if (jobs + users > 0) {
+            log.info("Skill backfill completed: {} job batches, {} user batches", jobs, users);
+        }
+    }
+
+    /**
+     * Dictionary entries that are aliases in the synonym file, by ID, with the
+     * canonical name they stand for. Entries that only fuzzy-match a canonical
+     * name are left alone, so stored links are never rewritten on a guess.
+     */
+    private Map<Integer, String> findAliasSkills() {
+        Map<Integer, String> aliases = new HashMap<>();
+        for (Skill skill : skillRepository.findAll(Sort.by("id"))) {
+            String canonical = skillNormalizer.synonymOf(skill.getName());
+            if (canonical != null) {
+                aliases.put(skill.getId(), canonical);
+            }
+        }
+        return aliases;
+    }
+
+    // All return the last ID of the batch, or null once there is nothing left
+    private Integer relinkJobs(List<Job> batch) {
+        batch.forEach(job -> job.setSkillSet(resolve(job.getSkills())));
+        return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+    }
+
+    private Integer relinkUsers(List<User> batch) {
+        batch.forEach(user -> user.setSkillSet(resolve(user.getSkills())));
+        return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+    }
+
+    // Only the alias links are replaced, the row's other skills keep their links
+    private Integer relinkJobAliases(List<Job> batch, Map<Integer, String> aliases) {
+        batch.forEach(job -> job.setSkillSet(replaceAliases(job.getSkillSet(), aliases)));
+        return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+    }
+
+    private Integer relinkUserAliases(List<User> batch, Map<Integer, String> aliases) {
+        batch.forEach(user -> user.setSkillSet(replaceAliases(user.getSkillSet(), aliases)));
+        return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+    }
+
+    private Set<Skill> replaceAliases(Set<Skill> skills, Map<Integer, String> aliases) {
+        return entries(skills.stream()
+                .map(skill -> aliases.getOrDefault(skill.getId(), skill.getName()))
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    private int backfillBatches(IntFunction<Integer> batch) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int batches = 0;
+        Integer lastId = 0;
+        while (true) {
+            final int after = lastId;
+            lastId = transactionTemplate.execute(status -> batch.apply(after));
+            if (lastId == null) {
+                return batches;
+            }
+            batches++;
+        }
+    }
+}
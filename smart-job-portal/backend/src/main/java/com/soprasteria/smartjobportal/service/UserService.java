@@ -1,13 +1,14 @@
 package com.soprasteria.smartjobportal.service;
 
 import com.soprasteria.smartjobportal.dto.AuthDTO.UserResponse;
+import com.soprasteria.smartjobportal.event.UserSkillsUpdatedEvent;
 import com.soprasteria.smartjobportal.model.User;
 import com.soprasteria.smartjobportal.repository.UserRepository;
+import com.soprasteria.smartjobportal.security.CurrentUserContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 
@@ -16,14 +17,17 @@ import java.util.Map;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
+    private final SkillService skillService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserResponse getCurrentUserProfile() {
-        User user = getCurrentUser();
+        User user = currentUserContext.getUser();
         return UserResponse.fromEntity(user);
     }
 
     public UserResponse updateUserProfile(Map<String, Object> profileData) {
-        User user = getCurrentUser();
+        User user = currentUserContext.getUser();
         
         if (profileData.containsKey("fullName")) {
             user.setFullName((String) profileData.get("fullName"));
@@ -68,17 +72,13 @@ public class UserService {
         return UserResponse.fromEntity(user);
     }
 
+    @Transactional
     public UserResponse updateUserSkills(String skills) {
-        User user = getCurrentUser();
+        User user = currentUserContext.getUser();
         user.setSkills(skills);
+        user.setSkillSet(skillService.resolve(skills));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserSkillsUpdatedEvent(user.getId()));
         return UserResponse.fromEntity(user);
     }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-    }
 }
@@ -0,0 +1,116 @@
+package com.soprasteria.smartjobportal.chatbot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InFlightPromptsTest {
+
+    private static final String KEY = "1:what is a cover letter";
+    private static final long TIMEOUT_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InFlightPrompts inFlightPrompts = new InFlightPrompts(TIMEOUT_MS, meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void identicalPromptsShareOneUpstreamCall() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> callers = joinAll(KEY, 5, upstream);
+        upstream.complete("answer");
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(callers).allSatisfy(caller -> assertThat(caller.join()).isEqualTo("answer"));
+        assertThat(meterRegistry.counter("chatbot.upstream.calls").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("chatbot.upstream.coalesced").count()).isEqualTo(4);
+    }
+
+    @Test
+    void differentPromptsGetTheirOwnCall() {
+        CompletableFuture<String> first = inFlightPrompts.join(KEY, upstream(CompletableFuture.completedFuture("first")));
+        CompletableFuture<String> second = inFlightPrompts.join("1:how do i negotiate salary",
+                upstream(CompletableFuture.completedFuture("second")));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(first.join()).isEqualTo("first");
+        assertThat(second.join()).isEqualTo("second");
+    }
+
+    @Test
+    void failureReachesEveryCaller() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> callers = joinAll(KEY, 3, upstream);
+        upstream.completeExceptionally(new GeminiException(503, "UNAVAILABLE"));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(callers).allSatisfy(caller -> assertThatThrownBy(caller::join)
+                .hasCauseInstanceOf(GeminiException.class)
+                .hasMessageContaining("503"));
+    }
+
+    @Test
+    void supplierThrowingFailsTheCallInsteadOfTheCaller() {
+        CompletableFuture<String> caller = inFlightPrompts.join(KEY, () -> {
+            throw new IllegalStateException("client closed");
+        });
+
+        assertThatThrownBy(caller::join).hasCauseInstanceOf(IllegalStateException.class);
+        // The failed call does not stay registered
+        assertThat(inFlightPrompts.join(KEY, upstream(CompletableFuture.completedFuture("retry"))).join())
+                .isEqualTo("retry");
+    }
+
+    @Test
+    void promptAfterCompletionStartsAFreshCall() {
+        inFlightPrompts.join(KEY, upstream(CompletableFuture.completedFuture("old"))).join();
+
+        CompletableFuture<String> next = inFlightPrompts.join(KEY, upstream(CompletableFuture.completedFuture("new")));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(next.join()).isEqualTo("new");
+    }
+
+    @Test
+    void callerTimesOutWithoutAffectingTheSharedCall() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> impatient = inFlightPrompts.join(KEY, upstream(upstream));
+        assertThatThrownBy(() -> impatient.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        // Still in flight: a later caller joins it and gets the late answer
+        CompletableFuture<String> patient = inFlightPrompts.join(KEY, upstream(new CompletableFuture<>()));
+        upstream.complete("late answer");
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(upstream).isNotCancelled();
+        assertThat(patient.get(5, TimeUnit.SECONDS)).isEqualTo("late answer");
+    }
+
+    private List<CompletableFuture<String>> joinAll(String key, int callers, CompletableFuture<String> upstream) {
+        return IntStream.range(0, callers)
+                .mapToObj(i -> inFlightPrompts.join(key, upstream(upstream)))
+                .toList();
+    }
+
+    private Supplier<CompletableFuture<String>> upstream(CompletableFuture<String> result) {
+        return () -> {
+            upstreamCalls.incrementAndGet();
+            return result;
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.soprasteria.smartjobportal.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the chatbot against a stub Gemini server that answers after a delay,
+ * with fewer request threads than chats waiting on it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gemini.api.key=test-key",
+        "gemini.http.max-concurrent-requests=" + ChatbotControllerTest.MAX_CONCURRENT,
+        "gemini.http.max-retries=0",
+        "chatbot.cache.max-size=0",
+        "server.tomcat.threads.max=" + ChatbotControllerTest.MAX_CONCURRENT
+})
+class ChatbotControllerTest {
+
+    static final int MAX_CONCURRENT = 4;
+
+    private static final long GEMINI_DELAY_MS = 2000;
+    private static final String ANSWER = "Tailor your resume to the job.";
+    private static final String BUSY = "The chatbot is busy right now. Please try again in a moment.";
+
+    private static final AtomicInteger geminiCalls = new AtomicInteger();
+    private static final HttpServer gemini = startGemini();
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void geminiUrl(DynamicPropertyRegistry registry) {
+        registry.add("gemini.api.url", () -> "http://127.0.0.1:" + gemini.getAddress().getPort()
+                + "/v1beta/models/stub:generateContent");
+    }
+
+    @AfterAll
+    static void stopGemini() {
+        gemini.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        geminiCalls.set(0);
+        token = register("seeker-" + System.nanoTime());
+    }
+
+    @Test
+    void jobsStayResponsiveWhileChatsWaitOnGemini() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> chats = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENT; i++) {
+            chats.add(chat("How do I prepare for interview " + i + "?"));
+        }
+        awaitGeminiCalls(MAX_CONCURRENT);
+
+        // Every request thread would be taken if the chats held theirs
+        for (int i = 0; i < MAX_CONCURRENT * 2; i++) {
+            HttpResponse<String> jobs = get("/api/jobs").get(1, TimeUnit.SECONDS);
+            assertThat(jobs.statusCode()).isEqualTo(200);
+        }
+        assertThat(chats).noneMatch(CompletableFuture::isDone);
+
+        // Over the concurrency limit: answered at once instead of queued
+        HttpResponse<String> extra = chat("How do I write a cover letter?").get(1, TimeUnit.SECONDS);
+        assertThat(reply(extra)).isEqualTo(BUSY);
+
+        for (CompletableFuture<HttpResponse<String>> chat : chats) {
+            assertThat(reply(chat.get(GEMINI_DELAY_MS * 3, TimeUnit.MILLISECONDS))).isEqualTo(ANSWER);
+        }
+        assertThat(geminiCalls).hasValue(MAX_CONCURRENT);
+    }
+
+    @Test
+    void identicalChatsShareOneGeminiCall() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> chats = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENT * 2; i++) {
+            // Differences the cache key ignores
+            chats.add(chat(i % 2 == 0 ? "What is a good salary?" : "  what is a GOOD salary "));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> chat : chats) {
+            assertThat(reply(chat.get(GEMINI_DELAY_MS * 3, TimeUnit.MILLISECONDS))).isEqualTo(ANSWER);
+        }
+        assertThat(geminiCalls).hasValue(1);
+    }
+
+    private static HttpServer startGemini() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                geminiCalls.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                try {
+                    Thread.sleep(GEMINI_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + ANSWER + "\"}]}}]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void awaitGeminiCalls(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (geminiCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(geminiCalls).hasValue(calls);
+    }
+
+    private String register(String username) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", "password",
+                "fullName", "Test Seeker",
+                "role", "JOBSEEKER"));
+        HttpResponse<String> response = http.send(post("/api/auth/register", body), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private CompletableFuture<HttpResponse<String>> chat(String message) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("message", message));
+        return http.sendAsync(post("/api/chatbot", body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String path) {
+        return http.sendAsync(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private String reply(HttpResponse<String> response) throws IOException {
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("response").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -1,6 +1,7 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
+import { Subscription } from 'rxjs';
 import { ChatbotService } from '../services/chatbot.service';
 
 @Component({
@@ -10,11 +11,13 @@ import { ChatbotService } from '../services/chatbot.service';
   templateUrl: './chatbot.component.html',
   styleUrls: ['./chatbot.component.scss']
 })
-export class ChatbotComponent implements OnInit {
+export class ChatbotComponent implements OnInit, OnDestroy {
   isChatOpen = false;
   isLoading = false;
+  isStreaming = false;
   userMessage = '';
   chatHistory: { sender: 'user' | 'bot', message: string }[] = [];
+  private streamSubscription?: Subscription;
 
   constructor(private chatbotService: ChatbotService) { }
 
@@ -26,12 +29,17 @@ export class ChatbotComponent implements OnInit {
     });
   }
 
+  ngOnDestroy(): void {
+    // Stops the answer being generated for nobody
+    this.streamSubscription?.unsubscribe();
+  }
+
   toggleChat(): void {
     this.isChatOpen = !this.isChatOpen;
   }
 
   sendMessage(): void {
-    if (!this.userMessage.trim()) return;
+    if (!this.userMessage.trim() || this.isStreaming) return;
     
     // Add user message to chat history
     this.chatHistory.push({
@@ -43,22 +51,33 @@ export class ChatbotComponent implements OnInit {
     this.userMessage = ''; // Clear input field
     this.isLoading = true;
     
-    // Call service to get response
-    this.chatbotService.sendMessage(message).subscribe({
-      next: (response) => {
-        this.chatHistory.push({
-          sender: 'bot',
-          message: response.response
-        });
-        this.isLoading = false;
+    // Call service and show the response as it is generated
+    const reply: { sender: 'user' | 'bot', message: string } = { sender: 'bot', message: '' };
+    this.isStreaming = true;
+    this.streamSubscription = this.chatbotService.streamMessage(message).subscribe({
+      next: (part) => {
+        if (this.isLoading) {
+          this.chatHistory.push(reply);
+          this.isLoading = false;
+        }
+        reply.message += part;
       },
       error: (error) => {
         console.error('Error getting chatbot response', error);
-        this.chatHistory.push({
-          sender: 'bot',
-          message: 'Sorry, I encountered an error. Please try again later.'
-        });
+        if (this.isLoading) {
+          this.chatHistory.push(reply);
+        }
+        reply.message = 'Sorry, I encountered an error. Please try again later.';
+        this.isLoading = false;
+        this.isStreaming = false;
+      },
+      complete: () => {
+        if (this.isLoading) {
+          reply.message = 'Sorry, I couldn\'t process your request.';
+          this.chatHistory.push(reply);
+        }
         this.isLoading = false;
+        this.isStreaming = false;
       }
     });
   }
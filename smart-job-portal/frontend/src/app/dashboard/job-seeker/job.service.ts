@@ -7,7 +7,8 @@ import { ConfigService } from '../../services/config.service';
 export interface JobDTO {
   id: number;
   title: string;
-  description: string;
+  // Not included in list responses such as matching jobs
+  description?: string;
   skills: string;
   location: string;
   salary: string;
@@ -65,9 +66,10 @@ export class JobService {
     };
   }
 
-  // Get jobs matching the current user's skills
-  getMatchingJobs(): Observable<JobDTO[]> {
-    const url = `${this.apiUrl}/jobs/matching`;
+  // Get jobs matching the current user's skills, best first; the server returns
+  // at most `limit` of them (20 when omitted, never more than 100)
+  getMatchingJobs(limit?: number): Observable<JobDTO[]> {
+    const url = limit ? `${this.apiUrl}/jobs/matching?limit=${limit}` : `${this.apiUrl}/jobs/matching`;
     const options = this.getHttpOptions();
     console.log('Making API call to:', url);
     console.log('With headers:', options.headers);
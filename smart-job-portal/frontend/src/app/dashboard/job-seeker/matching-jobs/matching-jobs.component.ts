@@ -4,6 +4,10 @@ import { FormsModule } from '@angular/forms';
 import { JobService, JobDTO } from '../job.service';
 import { HttpClientModule } from '@angular/common/http';
 
+// The matching endpoint returns the best matches only, at most 100 per
+// request (20 if no limit is sent), so this list shows the top 100 jobs.
+const MAX_MATCHING_JOBS = 100;
+
 @Component({
   selector: 'app-matching-jobs',
   templateUrl: './matching-jobs.component.html',
@@ -37,7 +41,7 @@ export class MatchingJobsComponent implements OnInit {
     this.isLoading = true;
     this.error = false;
     
-    this.jobService.getMatchingJobs().subscribe({
+    this.jobService.getMatchingJobs(MAX_MATCHING_JOBS).subscribe({
       next: (jobs: JobDTO[]) => {
         console.log('Matching jobs loaded:', jobs);
         this.matchingJobs = jobs;
@@ -1,7 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterModule } from '@angular/router';
-import { JobService, JobResponse } from '../../../services/job.service';
+import { JobService, JobSummary } from '../../../services/job.service';
 import { AuthService } from '../../../auth/auth.service';
 
 @Component({
@@ -12,7 +12,7 @@ import { AuthService } from '../../../auth/auth.service';
   styleUrl: './recruiter-dashboard.component.scss'
 })
 export class RecruiterDashboardComponent implements OnInit {
-  jobs: JobResponse[] = [];
+  jobs: JobSummary[] = [];
   loading = false;
   error = '';
 
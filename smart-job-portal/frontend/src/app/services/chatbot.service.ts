@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpDownloadProgressEvent, HttpEvent, HttpEventType } from '@angular/common/http';
+import { Observable, defer, mergeMap } from 'rxjs';
 import { ConfigService } from './config.service';
 
 export interface ChatRequest {
@@ -11,6 +11,11 @@ export interface ChatResponse {
   response: string;
 }
 
+interface ServerSentEvent {
+  event: string;
+  data: string;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -33,4 +38,66 @@ export class ChatbotService {
     const request: ChatRequest = { message };
     return this.http.post<ChatResponse>(this.apiUrl, request);
   }
+
+  /**
+   * Send a message to the chatbot and receive the answer in parts as it is
+   * generated. Each emitted value is the next part of the answer, or the
+   * message to show when it could not be generated. Unsubscribing aborts the
+   * request, which also stops the generation on the server.
+   * @param message The user's message
+   * @returns Observable emitting the parts of the chatbot's response
+   */
+  streamMessage(message: string): Observable<string> {
+    const request: ChatRequest = { message };
+    return defer(() => {
+      // Length of the response text already parsed into events
+      let parsed = 0;
+      return this.http.post(`${this.apiUrl}/stream`, request, {
+        headers: { Accept: 'text/event-stream' },
+        observe: 'events',
+        reportProgress: true,
+        responseType: 'text'
+      }).pipe(
+        mergeMap((event: HttpEvent<string>) => {
+          const text = this.responseText(event);
+          // Events are complete once followed by a blank line
+          const end = text === null ? -1 : text.lastIndexOf('\n\n');
+          if (text === null || end < parsed) {
+            return [];
+          }
+          const events = this.parseEvents(text.substring(parsed, end));
+          parsed = end + 2;
+          return events
+            .filter(sse => sse.event === 'chunk' || sse.event === 'error')
+            .map(sse => (JSON.parse(sse.data) as ChatResponse).response);
+        })
+      );
+    });
+  }
+
+  private responseText(event: HttpEvent<string>): string | null {
+    if (event.type === HttpEventType.DownloadProgress) {
+      return (event as HttpDownloadProgressEvent).partialText ?? null;
+    }
+    if (event.type === HttpEventType.Response) {
+      return event.body ?? '';
+    }
+    return null;
+  }
+
+  private parseEvents(text: string): ServerSentEvent[] {
+    return text.split('\n\n')
+      .filter(block => block.trim())
+      .map(block => {
+        const sse: ServerSentEvent = { event: 'message', data: '' };
+        for (const line of block.split('\n')) {
+          if (line.startsWith('event:')) {
+            sse.event = line.substring(6).trim();
+          } else if (line.startsWith('data:')) {
+            sse.data += (sse.data ? '\n' : '') + line.substring(5);
+          }
+        }
+        return sse;
+      });
+  }
 }
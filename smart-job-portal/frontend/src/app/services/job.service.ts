@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable, expand, reduce } from 'rxjs';
 import { ConfigService } from './config.service';
 
 export interface JobRequest {
@@ -29,8 +29,55 @@ export interface JobResponse {
   postedByName: string;
   matchPercentage?: number;
   applied?: boolean;
+  score?: number;
+  highlight?: string;
 }
 
+// List view of a job; the description is only returned by getJobById
+export interface JobSummary {
+  id: number;
+  title: string;
+  skills: string;
+  location: string;
+  salary: string;
+  employmentType: string;
+  experienceLevel: string;
+  company: string;
+  postedDate: string;
+  postedById: number;
+  postedByName: string;
+  matchPercentage?: number;
+  applied?: boolean;
+  score?: number;
+  highlight?: string;
+}
+
+// Facet selections; values within a facet are OR-ed, facets are AND-ed
+export interface JobFilter {
+  employmentType?: string[];
+  experienceLevel?: string[];
+  location?: string[];
+  salaryBand?: string[];
+}
+
+export interface JobPage<T> {
+  content: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+  size: number;
+  // Result counts per facet value, only returned by search
+  facets?: Record<string, Record<string, number>>;
+}
+
+export interface Suggestion {
+  text: string;
+  type: 'SKILL' | 'TITLE';
+  frequency: number;
+}
+
+// Largest page the server returns; the list wrappers below fetch every page
+const MAX_PAGE_SIZE = 100;
+
 @Injectable({
   providedIn: 'root'
 })
@@ -44,8 +91,12 @@ export class JobService {
     private configService: ConfigService
   ) { }
 
-  getAllJobs(): Observable<JobResponse[]> {
-    return this.http.get<JobResponse[]>(this.apiUrl);
+  getAllJobs(): Observable<JobSummary[]> {
+    return this.allPages(cursor => this.getJobsPage(cursor, MAX_PAGE_SIZE));
+  }
+
+  getJobsPage(cursor?: string, limit?: number): Observable<JobPage<JobSummary>> {
+    return this.http.get<JobPage<JobSummary>>(this.apiUrl, { params: this.pageParams(cursor, limit) });
   }
 
   getJobById(id: number): Observable<JobResponse> {
@@ -56,15 +107,62 @@ export class JobService {
     return this.http.post<JobResponse>(this.apiUrl, jobRequest);
   }
 
-  searchJobs(keyword: string): Observable<JobResponse[]> {
-    return this.http.get<JobResponse[]>(`${this.apiUrl}/search?keyword=${keyword}`);
+  searchJobs(keyword: string): Observable<JobSummary[]> {
+    return this.allPages(cursor => this.searchJobsPage(keyword, cursor, MAX_PAGE_SIZE));
+  }
+
+  searchJobsPage(keyword: string, cursor?: string, limit?: number, filter?: JobFilter): Observable<JobPage<JobSummary>> {
+    const params: Record<string, string | string[]> = { ...this.pageParams(cursor, limit), keyword };
+    if (filter) {
+      for (const [facet, values] of Object.entries(filter)) {
+        if (values && values.length) {
+          params[facet] = values;
+        }
+      }
+    }
+    return this.http.get<JobPage<JobSummary>>(`${this.apiUrl}/search`, { params });
+  }
+
+  getMatchingJobs(): Observable<JobSummary[]> {
+    return this.http.get<JobSummary[]>(`${this.apiUrl}/matching`);
+  }
+
+  getMyPostedJobs(): Observable<JobSummary[]> {
+    return this.allPages(cursor => this.getMyPostedJobsPage(cursor, MAX_PAGE_SIZE));
+  }
+
+  getMyPostedJobsPage(cursor?: string, limit?: number): Observable<JobPage<JobSummary>> {
+    return this.http.get<JobPage<JobSummary>>(`${this.apiUrl}/my-posted-jobs`, { params: this.pageParams(cursor, limit) });
+  }
+
+  // Skill and title completions, most frequent first
+  suggest(prefix: string, type?: 'SKILL' | 'TITLE', limit?: number): Observable<Suggestion[]> {
+    const params: Record<string, string> = { prefix };
+    if (type) {
+      params['type'] = type;
+    }
+    if (limit) {
+      params['limit'] = String(limit);
+    }
+    return this.http.get<Suggestion[]>(this.configService.getApiEndpoint('api/suggest'), { params });
   }
 
-  getMatchingJobs(): Observable<JobResponse[]> {
-    return this.http.get<JobResponse[]>(`${this.apiUrl}/matching`);
+  // Follows nextCursor from the first page to the last and emits all items once
+  private allPages<T>(fetchPage: (cursor?: string) => Observable<JobPage<T>>): Observable<T[]> {
+    return fetchPage().pipe(
+      expand(page => page.hasMore && page.nextCursor ? fetchPage(page.nextCursor) : EMPTY),
+      reduce((items, page) => items.concat(page.content), [] as T[])
+    );
   }
 
-  getMyPostedJobs(): Observable<JobResponse[]> {
-    return this.http.get<JobResponse[]>(`${this.apiUrl}/my-posted-jobs`);
+  private pageParams(cursor?: string, limit?: number): Record<string, string> {
+    const params: Record<string, string> = {};
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    if (limit) {
+      params['limit'] = String(limit);
+    }
+    return params;
   }
 }